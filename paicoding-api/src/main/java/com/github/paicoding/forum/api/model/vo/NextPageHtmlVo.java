@@ -16,4 +16,13 @@ import java.io.Serializable;
 public class NextPageHtmlVo implements Serializable {
     private String html;
     private Boolean hasMore;
+    /**
+     * 下一页的游标
+     */
+    private String cursor;
+
+    public NextPageHtmlVo(String html, Boolean hasMore) {
+        this.html = html;
+        this.hasMore = hasMore;
+    }
 }
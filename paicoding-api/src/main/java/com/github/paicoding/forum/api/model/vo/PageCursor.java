@@ -0,0 +1,81 @@
+package com.github.paicoding.forum.api.model.vo;
+
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基于游标的分页位置
+ * <p>
+ * 记录上一页最后一条数据的排序字段与主键，下一页查询时以 where (排序字段, 主键) < (游标值) 代替 limit offset，
+ * 翻到第几页的查询代价都与第一页相同；对外以不透明的字符串传递，前端原样回传即可
+ *
+ * @author YiHui
+ * @date 2024/4/7
+ */
+@Data
+public class PageCursor {
+    private static final String SEPARATOR = ",";
+
+    /**
+     * 排序字段的值，按照 order by 的顺序
+     */
+    private List<Long> sorts;
+
+    /**
+     * 主键，排序字段相同时用于确定顺序
+     */
+    private Long id;
+
+    public static PageCursor of(Long id, Long... sorts) {
+        PageCursor cursor = new PageCursor();
+        cursor.id = id;
+        cursor.sorts = sorts.length == 0 ? Collections.emptyList() : Arrays.asList(sorts);
+        return cursor;
+    }
+
+    /**
+     * 编码为前端使用的游标字符串
+     *
+     * @return
+     */
+    public String encode() {
+        StringBuilder builder = new StringBuilder();
+        for (Long sort : sorts) {
+            builder.append(sort).append(SEPARATOR);
+        }
+        builder.append(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析前端传入的游标
+     *
+     * @param cursor
+     * @return 游标为空或非法时，返回null
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            String[] cells = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8).split(SEPARATOR);
+            List<Long> sorts = new ArrayList<>(cells.length - 1);
+            for (int i = 0; i < cells.length - 1; i++) {
+                sorts.add(Long.parseLong(cells[i]));
+            }
+            PageCursor ans = new PageCursor();
+            ans.sorts = sorts;
+            ans.id = Long.parseLong(cells[cells.length - 1]);
+            return ans;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
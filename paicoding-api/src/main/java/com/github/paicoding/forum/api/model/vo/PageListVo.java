@@ -5,6 +5,7 @@ import lombok.Data;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * @author YiHui
@@ -23,6 +24,11 @@ public class PageListVo<T> {
      */
     private Boolean hasMore;
 
+    /**
+     * 下一页的游标，用于基于游标的分页
+     */
+    private String cursor;
+
     public static <T> PageListVo<T> emptyVo() {
         PageListVo<T> vo = new PageListVo<>();
         vo.setList(Collections.emptyList());
@@ -36,4 +42,12 @@ public class PageListVo<T> {
         vo.setHasMore(vo.getList().size() == pageSize);
         return vo;
     }
+
+    public static <T> PageListVo<T> newVo(List<T> list, long pageSize, Function<T, PageCursor> cursor) {
+        PageListVo<T> vo = newVo(list, pageSize);
+        if (vo.getHasMore()) {
+            vo.setCursor(cursor.apply(vo.getList().get(vo.getList().size() - 1)).encode());
+        }
+        return vo;
+    }
 }
@@ -26,6 +26,9 @@ public class PageParam {
     private long offset;
     private long limit;
 
+    @ApiModelProperty("上一页返回的游标，不为空时基于游标查询下一页，忽略页数")
+    private PageCursor cursor;
+
     public static PageParam newPageInstance() {
         return newPageInstance(DEFAULT_PAGE_NUM, DEFAULT_PAGE_SIZE);
     }
@@ -49,6 +52,21 @@ public class PageParam {
         return pageParam;
     }
 
+    /**
+     * 基于游标的分页，从游标位置往后取 pageSize 条数据
+     *
+     * @param cursor   上一页返回的游标
+     * @param pageSize
+     * @return 游标非法时，退化为查询第一页
+     */
+    public static PageParam newCursorInstance(String cursor, Long pageSize) {
+        PageParam pageParam = newPageInstance(DEFAULT_PAGE_NUM, pageSize);
+        if (pageParam != null) {
+            pageParam.cursor = PageCursor.decode(cursor);
+        }
+        return pageParam;
+    }
+
     public static String getLimitSql(PageParam pageParam) {
         return String.format("limit %s,%s", pageParam.offset, pageParam.limit);
     }
@@ -67,6 +67,11 @@ public class ArticleDTO implements Serializable {
      */
     private String content;
 
+    /**
+     * 正文版本号
+     */
+    private Long version;
+
     /**
      * 文章来源
      *
@@ -0,0 +1,42 @@
+package com.github.paicoding.forum.api.model.vo.statistics.dto;
+
+import lombok.Data;
+
+/**
+ * 单个sql语句(mapper方法)的执行统计
+ *
+ * @author YiHui
+ * @date 2024/4/5
+ */
+@Data
+public class SqlStatDTO {
+    /**
+     * mapper方法，如 com.xxx.ArticleMapper.selectById
+     */
+    private String statement;
+
+    /**
+     * 执行次数
+     */
+    private Long count;
+
+    /**
+     * 平均耗时(ms)
+     */
+    private Double avgCost;
+
+    /**
+     * 最大耗时(ms)
+     */
+    private Long maxCost;
+
+    /**
+     * 慢sql次数
+     */
+    private Long slowCount;
+
+    /**
+     * 最近一次慢sql的完整语句
+     */
+    private String lastSlowSql;
+}
@@ -0,0 +1,52 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.paicoding.forum.core.util.ArticleUtil;
+import com.github.paicoding.forum.core.util.MdImgLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章摘要提取与图片解析
+ *
+ * @author YiHui
+ * @date 2024/3/30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArticleUtilBenchmark {
+    @Param({"small", "large"})
+    private String size;
+
+    private String markdown;
+
+    @Setup
+    public void setup() {
+        markdown = "small".equals(size) ? BenchmarkData.SMALL_ARTICLE : BenchmarkData.LARGE_ARTICLE;
+    }
+
+    @Benchmark
+    public String pickSummary() {
+        return ArticleUtil.pickSummary(markdown);
+    }
+
+    @Benchmark
+    public List<MdImgLoader.MdImg> loadImgs() {
+        return MdImgLoader.loadImgs(markdown);
+    }
+}
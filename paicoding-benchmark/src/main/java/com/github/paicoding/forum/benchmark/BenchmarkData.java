@@ -0,0 +1,116 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.paicoding.forum.api.model.vo.article.dto.ArticleDTO;
+import com.github.paicoding.forum.api.model.vo.article.dto.CategoryDTO;
+import com.github.paicoding.forum.api.model.vo.article.dto.TagDTO;
+import com.github.paicoding.forum.api.model.vo.user.dto.ArticleFootCountDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试使用的样例数据
+ *
+ * @author YiHui
+ * @date 2024/3/30
+ */
+public class BenchmarkData {
+    /**
+     * 模拟一篇教程的单个章节：标题、正文、列表、表格、代码块、图片、链接
+     */
+    private static final String SECTION = "## 一、Java 并发编程入门\n\n" +
+            "技术派是一个基于 Spring Boot、MyBatis-Plus、MySQL、Redis、ElasticSearch、RabbitMQ 实现的社区系统，" +
+            "本节介绍 **线程池** 的核心参数以及 `ThreadPoolExecutor` 的执行流程，详细内容参考 [官方文档](https://docs.oracle.com/javase/8/docs/api/).\n\n" +
+            "![线程池执行流程](https://cdn.tobebetterjavaer.com/paicoding/thread-pool.png)\n\n" +
+            "- [x] 核心线程数 corePoolSize\n" +
+            "- [ ] 最大线程数 maximumPoolSize\n" +
+            "- [ ] 阻塞队列 workQueue :smile:\n\n" +
+            "| 参数 | 说明 | 默认值 |\n" +
+            "| --- | --- | --- |\n" +
+            "| corePoolSize | 核心线程数 | 无 |\n" +
+            "| keepAliveTime | 空闲线程存活时间 | 60s |\n\n" +
+            "```java\n" +
+            "ExecutorService es = new ThreadPoolExecutor(4, 8, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(100));\n" +
+            "es.submit(() -> System.out.println(\"hello world\"));\n" +
+            "```\n\n" +
+            "> 注意：使用无界队列时，最大线程数参数不会生效[^1]\n\n" +
+            "[^1]: 参考《Java 并发编程实战》\n\n";
+
+    /**
+     * 约 1KB 的短文
+     */
+    public static final String SMALL_ARTICLE = SECTION;
+
+    /**
+     * 约 200KB 的长文教程
+     */
+    public static final String LARGE_ARTICLE = repeat(SECTION, 200);
+
+    /**
+     * 不包含敏感词的评论
+     */
+    public static final String CLEAN_TEXT = "这篇文章写的很好，线程池的参数讲解的很清楚，期待作者更新后续的 JVM 系列教程";
+
+    private static String repeat(String txt, int times) {
+        StringBuilder builder = new StringBuilder(txt.length() * times);
+        for (int i = 0; i < times; i++) {
+            builder.append(txt);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 文章详情页返回的完整文章信息
+     *
+     * @return
+     */
+    public static ArticleDTO article() {
+        ArticleDTO article = new ArticleDTO();
+        article.setArticleId(1735281032314327042L);
+        article.setArticleType(1);
+        article.setAuthor(1L);
+        article.setAuthorName("一灰灰");
+        article.setAuthorAvatar("https://cdn.tobebetterjavaer.com/paicoding/avatar/0001.png");
+        article.setTitle("Java 并发编程入门：线程池的核心参数");
+        article.setShortTitle("线程池核心参数");
+        article.setSummary("本节介绍线程池的核心参数以及 ThreadPoolExecutor 的执行流程");
+        article.setCover("https://cdn.tobebetterjavaer.com/paicoding/cover/0001.png");
+        article.setContent(SMALL_ARTICLE);
+        article.setVersion(3L);
+        article.setSourceType("原创");
+        article.setStatus(1);
+        article.setOfficalStat(1);
+        article.setToppingStat(0);
+        article.setCreamStat(1);
+        article.setCreateTime(System.currentTimeMillis());
+        article.setLastUpdateTime(System.currentTimeMillis());
+
+        CategoryDTO category = new CategoryDTO();
+        category.setCategoryId(1L);
+        category.setCategory("后端");
+        category.setRank(1);
+        category.setStatus(1);
+        article.setCategory(category);
+
+        List<TagDTO> tags = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            TagDTO tag = new TagDTO();
+            tag.setTagId(i);
+            tag.setTag("Java" + i);
+            tag.setStatus(1);
+            tags.add(tag);
+        }
+        article.setTags(tags);
+
+        ArticleFootCountDTO count = new ArticleFootCountDTO();
+        count.setReadCount(12345);
+        count.setPraiseCount(321);
+        count.setCollectionCount(88);
+        count.setCommentCount(42);
+        article.setCount(count);
+        article.setPraised(false);
+        article.setCommented(true);
+        article.setCollected(false);
+        return article;
+    }
+}
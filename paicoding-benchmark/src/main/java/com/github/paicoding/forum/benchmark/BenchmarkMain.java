@@ -0,0 +1,47 @@
+package com.github.paicoding.forum.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口，支持 JMH 的全部命令行参数，未指定结果输出时，默认以json格式写入 jmh-result.json
+ * <p>
+ * 使用方式:
+ * <pre>
+ * mvn -pl paicoding-benchmark -am package -o
+ * java -jar paicoding-benchmark/target/benchmarks.jar -l                    # 查看所有的测试
+ * java -jar paicoding-benchmark/target/benchmarks.jar                       # 执行全部
+ * java -jar paicoding-benchmark/target/benchmarks.jar Markdown -rff md.json  # 只执行名称匹配的测试
+ * </pre>
+ * 不同提交的 json 结果可直接对比，也可以上传到 jmh.morethan.io 可视化查看
+ *
+ * @author YiHui
+ * @date 2024/3/30
+ */
+public class BenchmarkMain {
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+            return;
+        }
+        if (cmd.shouldList()) {
+            new Runner(cmd).list();
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.paicoding.forum.core.util.CompressUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数字的62进制压缩
+ * <p>
+ * - legacy: 改造前基于 StringBuilder.insert(0, c) 的实现
+ * - batch: 批量转换 {@link #BATCH} 个id，按单个id计算吞吐
+ *
+ * @author YiHui
+ * @date 2024/3/30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressUtilBenchmark {
+    private static final int BATCH = 64;
+
+    private static final char[] LEGACY_ARRAY = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    /**
+     * 雪花算法生成的id量级
+     */
+    private long id = 1735281032314327042L;
+
+    private String str = CompressUtil.int2str(id);
+
+    private long[] ids;
+
+    @Setup
+    public void setup() {
+        ids = new long[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            ids[i] = id + i * 4096L;
+        }
+    }
+
+    @Benchmark
+    public String int2str() {
+        return CompressUtil.int2str(id);
+    }
+
+    @Benchmark
+    public String legacyInt2str() {
+        StringBuilder builder = new StringBuilder();
+        long num = id;
+        while (num > 0) {
+            builder.insert(0, LEGACY_ARRAY[(int) (num % LEGACY_ARRAY.length)]);
+            num /= LEGACY_ARRAY.length;
+        }
+        return builder.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public String[] int2strBatch() {
+        return CompressUtil.int2str(ids);
+    }
+
+    @Benchmark
+    public long str2int() {
+        return CompressUtil.str2int(str);
+    }
+}
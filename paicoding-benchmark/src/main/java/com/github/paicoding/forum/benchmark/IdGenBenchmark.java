@@ -0,0 +1,110 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.paicoding.forum.core.util.id.IdUtil;
+import com.github.paicoding.forum.core.util.id.snowflake.MillisSnowflakeIdGenerator;
+import com.github.paicoding.forum.core.util.id.snowflake.PaiSnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * id生成，分别测试 1 / 8 / 32 个线程竞争下的吞吐
+ * <p>
+ * - snowflake: 日期前缀的秒级雪花(synchronized)，每秒最多 1024 个id，吞吐受限于序列号
+ * - millis: 毫秒级无锁雪花，每毫秒 4096 个id
+ * - millisBatch: 毫秒级雪花批量生成，每次 {@link #BATCH} 个，按单个id计算吞吐
+ *
+ * @author YiHui
+ * @date 2024/3/30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenBenchmark {
+    private static final int BATCH = 64;
+
+    private final PaiSnowflakeIdGenerator generator = new PaiSnowflakeIdGenerator();
+    private final MillisSnowflakeIdGenerator millisGenerator = new MillisSnowflakeIdGenerator(1, 1);
+
+    @Benchmark
+    @Threads(1)
+    public Long snowflakeNextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Long snowflakeNextIdContended() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Long snowflakeNextId32() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long millisNextId() {
+        return millisGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Long millisNextIdContended() {
+        return millisGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Long millisNextId32() {
+        return millisGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH)
+    public long[] millisNextIds() {
+        return millisGenerator.nextIds(BATCH);
+    }
+
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(BATCH)
+    public long[] millisNextIdsContended() {
+        return millisGenerator.nextIds(BATCH);
+    }
+
+    @Benchmark
+    @Threads(32)
+    @OperationsPerInvocation(BATCH)
+    public long[] millisNextIds32() {
+        return millisGenerator.nextIds(BATCH);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long genId() {
+        return IdUtil.genId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Long genIdContended() {
+        return IdUtil.genId();
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.paicoding.forum.core.region.IpRegionInfo;
+import com.github.paicoding.forum.core.util.IpUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ip归属地查询，依赖 classpath 下的 data/ip2region.xdb
+ * <p>
+ * - hot: 同一个ip重复查询，命中本地缓存
+ * - random: 随机ip，基本都会穿透到xdb查询
+ *
+ * @author YiHui
+ * @date 2024/3/30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IpUtilBenchmark {
+    private static final int IP_SIZE = 1 << 16;
+
+    private String[] ips;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        ips = new String[IP_SIZE];
+        for (int i = 0; i < IP_SIZE; i++) {
+            ips[i] = (random.nextInt(223) + 1) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+        }
+        // 提前完成xdb的加载
+        IpUtil.getLocationByIp("121.40.134.96");
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public IpRegionInfo hot() {
+        return IpUtil.getLocationByIp("121.40.134.96");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public IpRegionInfo random(Cursor cursor) {
+        return IpUtil.getLocationByIp(ips[cursor.index++ & (IP_SIZE - 1)]);
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.paicoding.forum.api.model.vo.article.dto.ArticleDTO;
+import com.github.paicoding.forum.core.util.JsonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章详情的json序列化/反序列化
+ *
+ * @author YiHui
+ * @date 2024/3/30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonUtilBenchmark {
+    private ArticleDTO article;
+    private String json;
+
+    @Setup
+    public void setup() {
+        article = BenchmarkData.article();
+        json = JsonUtil.toStr(article);
+    }
+
+    @Benchmark
+    public String toStr() {
+        return JsonUtil.toStr(article);
+    }
+
+    @Benchmark
+    public ArticleDTO toObj() {
+        return JsonUtil.toObj(json, ArticleDTO.class);
+    }
+
+    @Benchmark
+    public ArticleDTO roundTrip() {
+        return JsonUtil.toObj(JsonUtil.toStr(article), ArticleDTO.class);
+    }
+}
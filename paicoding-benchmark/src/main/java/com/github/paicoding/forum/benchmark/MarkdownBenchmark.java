@@ -0,0 +1,45 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.paicoding.forum.core.util.MarkdownConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * markdown 渲染为 html
+ *
+ * @author YiHui
+ * @date 2024/3/30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarkdownBenchmark {
+    @Param({"small", "large"})
+    private String size;
+
+    private String markdown;
+
+    @Setup
+    public void setup() {
+        markdown = "small".equals(size) ? BenchmarkData.SMALL_ARTICLE : BenchmarkData.LARGE_ARTICLE;
+    }
+
+    @Benchmark
+    public String markdownToHtml() {
+        return MarkdownConverter.markdownToHtml(markdown);
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.houbb.sensitive.word.bs.SensitiveWordBs;
+import com.github.houbb.sensitive.word.support.allow.WordAllowSystem;
+import com.github.houbb.sensitive.word.support.deny.WordDenySystem;
+import com.github.paicoding.forum.core.autoconf.DynamicConfigContainer;
+import com.github.paicoding.forum.core.senstive.SensitiveProperty;
+import com.github.paicoding.forum.core.senstive.SensitiveService;
+import com.github.paicoding.forum.core.senstive.SensitiveWordMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 敏感词校验与替换
+ * <p>
+ * contains 命中敏感词时会写redis计数，基准测试不依赖redis，因此 contains 只测试不命中的文本，命中场景通过 findAll 测试
+ * <p>
+ * legacy 开头的为 sensitive-word 原生实现，matcher 开头的为不走替换缓存的自动机实现，用于对比
+ *
+ * @author YiHui
+ * @date 2024/3/30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SensitiveBenchmark {
+    private static final String DIRTY_TEXT = "五星红旗迎风飘扬，毛主席的画像屹立在天安门前。";
+
+    private SensitiveService sensitiveService;
+
+    private SensitiveWordMatcher matcher;
+
+    private SensitiveWordBs legacy;
+
+    /**
+     * 一页评论的内容，每条评论各不相同
+     */
+    private String[] comments;
+
+    @Setup
+    public void setup() {
+        sensitiveService = newSensitiveService();
+
+        matcher = SensitiveWordMatcher.build(WordDenySystem.getInstance().deny(), WordAllowSystem.getInstance().allow());
+        legacy = SensitiveWordBs.newInstance().init();
+
+        comments = new String[20];
+        for (int i = 0; i < comments.length; i++) {
+            comments[i] = "第" + i + "楼：" + BenchmarkData.CLEAN_TEXT + (i % 4 == 0 ? DIRTY_TEXT : "");
+        }
+    }
+
+    /**
+     * 不依赖spring容器，手动组装开启了敏感词替换的服务
+     *
+     * @return
+     */
+    static SensitiveService newSensitiveService() {
+        SensitiveProperty property = new SensitiveProperty();
+        property.setEnable(true);
+        property.setDeny(new ArrayList<>());
+        property.setAllow(new ArrayList<>());
+
+        SensitiveService service = new SensitiveService();
+        inject(service, "sensitiveConfig", property);
+        inject(service, "dynamicConfigContainer", new DynamicConfigContainer());
+        service.refresh();
+        return service;
+    }
+
+    static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    @Benchmark
+    public List<String> containsClean() {
+        return sensitiveService.contains(BenchmarkData.CLEAN_TEXT);
+    }
+
+    @Benchmark
+    public List<String> findAllDirty() {
+        return sensitiveService.findAll(DIRTY_TEXT);
+    }
+
+    @Benchmark
+    public String replaceClean() {
+        return sensitiveService.replace(BenchmarkData.CLEAN_TEXT);
+    }
+
+    @Benchmark
+    public String replaceDirty() {
+        return sensitiveService.replace(DIRTY_TEXT);
+    }
+
+    @Benchmark
+    public void replaceCommentPage(Blackhole bh) {
+        for (String comment : comments) {
+            bh.consume(sensitiveService.replace(comment));
+        }
+    }
+
+    @Benchmark
+    public void matcherReplaceCommentPage(Blackhole bh) {
+        for (String comment : comments) {
+            bh.consume(matcher.replace(comment));
+        }
+    }
+
+    @Benchmark
+    public void legacyReplaceCommentPage(Blackhole bh) {
+        for (String comment : comments) {
+            bh.consume(legacy.replace(comment));
+        }
+    }
+
+    @Benchmark
+    public String matcherReplaceLargeArticle() {
+        return matcher.replace(BenchmarkData.LARGE_ARTICLE);
+    }
+
+    @Benchmark
+    public String legacyReplaceLargeArticle() {
+        return legacy.replace(BenchmarkData.LARGE_ARTICLE);
+    }
+}
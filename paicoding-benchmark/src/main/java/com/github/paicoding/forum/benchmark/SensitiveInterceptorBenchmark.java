@@ -0,0 +1,140 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.paicoding.forum.core.senstive.ano.SensitiveField;
+import com.github.paicoding.forum.core.senstive.ibatis.SensitiveReadInterceptor;
+import com.github.paicoding.forum.core.senstive.SensitiveService;
+import lombok.Data;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查询结果敏感词替换拦截器的处理速度，结果为 行/秒
+ * <p>
+ * - comment: 带有敏感词字段的评论；plain: 不包含敏感词字段的普通实体
+ * - legacy 为改造前的实现：每行构建 MetaObject，按字段名反射读写
+ *
+ * @author YiHui
+ * @date 2024/4/4
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SensitiveInterceptorBenchmark {
+    private static final int ROWS = 100;
+
+    @Param({"comment", "plain"})
+    private String type;
+
+    private List<Object> rows;
+
+    private SensitiveService sensitiveService;
+
+    private SensitiveReadInterceptor interceptor;
+
+    private Configuration configuration;
+
+    private final Map<String, List<String>> legacyMeta = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setup() {
+        sensitiveService = SensitiveBenchmark.newSensitiveService();
+        interceptor = new SensitiveReadInterceptor();
+        SensitiveBenchmark.inject(interceptor, "sensitiveService", sensitiveService);
+        configuration = new Configuration();
+
+        rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            if ("comment".equals(type)) {
+                CommentRow row = new CommentRow();
+                row.setId((long) i);
+                row.setUserId(1000L + i);
+                row.setArticleId(10L);
+                row.setContent("第" + i + "楼：" + BenchmarkData.CLEAN_TEXT);
+                row.setCreateTime(new Date());
+                rows.add(row);
+            } else {
+                PlainRow row = new PlainRow();
+                row.setId((long) i);
+                row.setTitle("技术派教程第" + i + "章");
+                row.setCreateTime(new Date());
+                rows.add(row);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Object> interceptor() throws Throwable {
+        interceptor.replaceSensitiveResults(rows);
+        return rows;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Object> legacy() {
+        Class<?> clz = rows.get(0).getClass();
+        List<String> fields = legacyMeta.computeIfAbsent(clz.getName(), s -> parseSensitiveFields(clz));
+        for (Object row : rows) {
+            MetaObject metaObject = configuration.newMetaObject(row);
+            for (String field : fields) {
+                Object value = metaObject.getValue(field);
+                if (value instanceof String) {
+                    metaObject.setValue(field, sensitiveService.replace((String) value));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> parseSensitiveFields(Class<?> clz) {
+        List<String> fields = new ArrayList<>();
+        for (Class<?> tmp = clz; tmp != null && tmp != Object.class; tmp = tmp.getSuperclass()) {
+            for (Field field : tmp.getDeclaredFields()) {
+                if (field.getAnnotation(SensitiveField.class) != null) {
+                    fields.add(field.getName());
+                }
+            }
+        }
+        return fields;
+    }
+
+    @Data
+    public static class CommentRow {
+        private Long id;
+        private Long articleId;
+        private Long userId;
+        @SensitiveField(bind = "content")
+        private String content;
+        private Date createTime;
+    }
+
+    @Data
+    public static class PlainRow {
+        private Long id;
+        private String title;
+        private Date createTime;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.houbb.sensitive.word.support.allow.WordAllowSystem;
+import com.github.houbb.sensitive.word.support.deny.WordDenySystem;
+import com.github.paicoding.forum.core.senstive.SensitiveWordMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 敏感词配置刷新时，重新构建自动机的耗时
+ * <p>
+ * 词库 = 内置词库 + extra 个随机生成的自定义敏感词
+ *
+ * @author YiHui
+ * @date 2024/4/2
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SensitiveRebuildBenchmark {
+    @Param({"0", "10000", "50000"})
+    private int extra;
+
+    private List<String> deny;
+
+    private List<String> allow;
+
+    @Setup
+    public void setup() {
+        deny = WordDenySystem.getInstance().deny();
+        allow = WordAllowSystem.getInstance().allow();
+        Random random = new Random(42);
+        for (int i = 0; i < extra; i++) {
+            int len = 2 + random.nextInt(5);
+            StringBuilder word = new StringBuilder(len);
+            for (int j = 0; j < len; j++) {
+                // 常用汉字区间
+                word.append((char) (0x4E00 + random.nextInt(0x51A5)));
+            }
+            deny.add(word.toString());
+        }
+        // 预热字符归一化映射表，只在进程内初始化一次，不计入重建耗时
+        SensitiveWordMatcher.format("");
+    }
+
+    @Benchmark
+    public SensitiveWordMatcher rebuild() {
+        return SensitiveWordMatcher.build(deny, allow);
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.paicoding.forum.benchmark;
+
+import com.github.paicoding.forum.core.mdc.MdcAspect;
+import com.github.paicoding.forum.core.mdc.MdcDot;
+import com.github.paicoding.forum.core.util.MethodSpelEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @MdcDot 切面中 SpEL 表达式的计算开销，结果为 纳秒/次
+ * <p>
+ * - legacy: 改造前的实现，每次调用都重新解析表达式、获取参数名、创建 BeanFactoryResolver
+ * - cached: 按方法缓存解析后的表达式与参数名，mode 为 SpEL 编译模式
+ * - aspect: 通过代理调用 @MdcDot 修饰的方法，包含切面的全部开销；direct 为不走切面的直接调用
+ *
+ * @author YiHui
+ * @date 2024/4/11
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpelAspectBenchmark {
+    private static final String EXPRESSION = "#req.articleId";
+
+    @Param({"off", "immediate"})
+    private String mode;
+
+    private GenericApplicationContext applicationContext;
+
+    private final SpelExpressionParser legacyParser = new SpelExpressionParser();
+
+    private final ParameterNameDiscoverer legacyDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private MethodSpelEvaluator evaluator;
+
+    private Method method;
+
+    private Object[] args;
+
+    private ArticleApi target;
+
+    private ArticleApi proxy;
+
+    @Setup
+    public void setup() throws Exception {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.refresh();
+        SpelCompilerMode compilerMode = SpelCompilerMode.valueOf(mode.toUpperCase());
+        evaluator = new MethodSpelEvaluator(new BeanFactoryResolver(applicationContext), compilerMode, getClass().getClassLoader());
+        method = ArticleApi.class.getMethod("favor", FavorReq.class, Integer.class);
+        FavorReq req = new FavorReq();
+        req.setArticleId(1024L);
+        args = new Object[]{req, 1};
+
+        MdcAspect aspect = new MdcAspect();
+        SensitiveBenchmark.inject(aspect, "compilerMode", mode);
+        aspect.setApplicationContext(applicationContext);
+        aspect.init();
+        target = new ArticleApi();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        proxy = factory.getProxy();
+    }
+
+    @Benchmark
+    public String legacy() {
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        context.setBeanResolver(new BeanFactoryResolver(applicationContext));
+        String[] params = legacyDiscoverer.getParameterNames(method);
+        for (int i = 0; i < args.length; i++) {
+            context.setVariable(params[i], args[i]);
+        }
+        return legacyParser.parseExpression(EXPRESSION).getValue(context, String.class);
+    }
+
+    @Benchmark
+    public String cached() {
+        return evaluator.getValue(method, EXPRESSION, args, String.class);
+    }
+
+    @Benchmark
+    public Long aspect() {
+        return proxy.favor((FavorReq) args[0], 1);
+    }
+
+    @Benchmark
+    public Long direct() {
+        return target.favor((FavorReq) args[0], 1);
+    }
+
+    public static class ArticleApi {
+        @MdcDot(bizCode = EXPRESSION)
+        public Long favor(FavorReq req, Integer type) {
+            return req.getArticleId() + type;
+        }
+    }
+
+    public static class FavorReq {
+        private Long articleId;
+
+        public Long getArticleId() {
+            return articleId;
+        }
+
+        public void setArticleId(Long articleId) {
+            this.articleId = articleId;
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.paicoding.forum.core.cache.RedisClient;
 import com.github.paicoding.forum.core.config.ProxyProperties;
 import com.github.paicoding.forum.core.net.ProxyCenter;
+import com.github.paicoding.forum.core.util.id.IdUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -27,6 +29,9 @@ public class ForumCoreAutoConfig {
     @Autowired
     private ProxyProperties proxyProperties;
 
+    @Value("${paicoding.id.mode:day}")
+    private String idMode;
+
     public ForumCoreAutoConfig(RedisTemplate<String, String> redisTemplate) {
         RedisClient.register(redisTemplate);
     }
@@ -54,5 +59,6 @@ public class ForumCoreAutoConfig {
     public void init() {
         // 这里借助手动解析配置信息，并实例化为Java POJO对象，来实现代理池的初始化
         ProxyCenter.initProxyPool(proxyProperties.getProxy());
+        IdUtil.useMode(idMode);
     }
 }
@@ -1,5 +1,6 @@
 package com.github.paicoding.forum.core.async;
 
+import com.github.paicoding.forum.core.util.MethodSpelEvaluator;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -7,14 +8,14 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.expression.BeanFactoryResolver;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 
@@ -65,27 +66,28 @@ public class AsyncExecuteAspect implements ApplicationContextAware {
     }
 
     private Object defaultRespWhenTimeOut(ProceedingJoinPoint joinPoint, AsyncExecute asyncExecute) {
-        StandardEvaluationContext context = new StandardEvaluationContext();
-        context.setBeanResolver(new BeanFactoryResolver(this.applicationContext));
-
         // 超时，使用自定义的返回策略进行返回
         MethodSignature methodSignature = ((MethodSignature) joinPoint.getSignature());
-        String[] parameterNames = methodSignature.getParameterNames();
-        Object[] args = joinPoint.getArgs();
-        for (int i = 0; i < parameterNames.length; i++) {
-            context.setVariable(parameterNames[i], args[i]);
-        }
         log.info("{} 执行超时，返回兜底结果!", methodSignature.getMethod().getName());
-        return parser.parseExpression(asyncExecute.timeOutRsp()).getValue(context);
+        return evaluator.getValue(methodSignature.getMethod(), asyncExecute.timeOutRsp(), joinPoint.getArgs(), null);
     }
 
 
-    private ExpressionParser parser;
+    /**
+     * SpEL 编译模式，见 paicoding.spel.compiler-mode
+     */
+    @Value("${paicoding.spel.compiler-mode:off}")
+    private String compilerMode;
+    private MethodSpelEvaluator evaluator;
     private ApplicationContext applicationContext;
 
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
-        this.parser = new SpelExpressionParser();
         this.applicationContext = applicationContext;
     }
+
+    @PostConstruct
+    public void init() {
+        this.evaluator = new MethodSpelEvaluator(new BeanFactoryResolver(applicationContext), SpelCompilerMode.valueOf(compilerMode.toUpperCase()), applicationContext.getClassLoader());
+    }
 }
@@ -0,0 +1,32 @@
+package com.github.paicoding.forum.core.async;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 根据 paicoding.async 配置初始化业务线程池，并作为 @Async 的默认线程池
+ *
+ * @author YiHui
+ * @date 2024/4/9
+ */
+@Configuration
+@EnableConfigurationProperties(AsyncProperties.class)
+public class AsyncExecutorConfig implements AsyncConfigurer {
+
+    public AsyncExecutorConfig(AsyncProperties properties) {
+        AsyncUtil.initExecutors(properties);
+    }
+
+    /**
+     * 每次执行时再获取线程池，保证拿到的是最新初始化的实例
+     *
+     * @return
+     */
+    @Override
+    public Executor getAsyncExecutor() {
+        return command -> AsyncUtil.execute(AsyncPoolEnum.EVENT, command);
+    }
+}
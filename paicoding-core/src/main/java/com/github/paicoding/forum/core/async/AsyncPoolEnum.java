@@ -0,0 +1,54 @@
+package com.github.paicoding.forum.core.async;
+
+import lombok.Getter;
+
+/**
+ * 按业务划分的异步线程池，各自独立配置大小，避免某一类任务打满线程池后影响其他业务
+ * <p>
+ * 默认值可以通过 paicoding.async.pools.池名.* 覆盖
+ *
+ * @author YiHui
+ * @date 2024/4/9
+ */
+@Getter
+public enum AsyncPoolEnum {
+    /**
+     * 通用任务: AsyncUtil.execute/submit/callWithTimeLimit
+     */
+    DEFAULT("default", 50, 256, false),
+    /**
+     * 页面渲染时的并发加载，如首页的文章列表、侧边栏等；排队满了由调用线程执行，保证页面数据完整
+     */
+    PAGE("page", 64, 128, false),
+    /**
+     * 访问记录(pv/uv)，写满直接丢弃，不阻塞请求线程
+     */
+    VISIT("visit", 4, 2048, true),
+    /**
+     * 文章中的外链图片转存
+     */
+    IMAGE("image", 8, 64, false),
+    /**
+     * @Async 修饰的事件监听
+     */
+    EVENT("event", 16, 1024, false),
+    ;
+
+    private final String pool;
+    /**
+     * 最大线程数，线程按需创建，空闲后回收
+     */
+    private final int max;
+    private final int queue;
+    /**
+     * true 表示线程池满时丢弃任务；false 表示由提交任务的线程直接执行
+     */
+    private final boolean discard;
+
+    AsyncPoolEnum(String pool, int max, int queue, boolean discard) {
+        this.pool = pool;
+        this.max = max;
+        this.queue = queue;
+        this.discard = discard;
+    }
+}
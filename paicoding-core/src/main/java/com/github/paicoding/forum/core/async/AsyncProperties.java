@@ -0,0 +1,48 @@
+package com.github.paicoding.forum.core.async;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 异步线程池配置
+ *
+ * @author YiHui
+ * @date 2024/4/9
+ */
+@Data
+@ConfigurationProperties(prefix = AsyncProperties.ASYNC_PREFIX)
+public class AsyncProperties {
+    public static final String ASYNC_PREFIX = "paicoding.async";
+
+    /**
+     * true 表示使用虚拟线程执行任务(需要 JDK 21+)，不支持时回退为普通线程
+     */
+    private Boolean virtual = false;
+
+    /**
+     * true 表示 CompletableFutureBridge 保存每次执行的任务耗时明细并输出日志；不配置时，非生产环境开启
+     * <p>
+     * 无论是否开启，任务耗时都会记录到指标 paicoding.async.bridge 中
+     */
+    private Boolean bridgeDetail;
+
+    /**
+     * 池名 -> 线程池配置，未配置的项使用 {@link AsyncPoolEnum} 中的默认值
+     */
+    private Map<String, Pool> pools = new HashMap<>();
+
+    @Data
+    public static class Pool {
+        /**
+         * 最大线程数
+         */
+        private Integer max;
+        /**
+         * 排队任务数上限
+         */
+        private Integer queue;
+    }
+}
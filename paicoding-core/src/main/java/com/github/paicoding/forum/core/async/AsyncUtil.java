@@ -1,15 +1,17 @@
 package com.github.paicoding.forum.core.async;
 
-import cn.hutool.core.thread.ExecutorBuilder;
 import cn.hutool.core.util.ArrayUtil;
 import com.github.paicoding.forum.core.util.EnvUtil;
 import com.google.common.util.concurrent.SimpleTimeLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,13 +19,13 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 /**
  * 异步工具类
@@ -33,9 +35,117 @@ import java.util.function.Supplier;
  */
 @Slf4j
 public class AsyncUtil {
-    private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+    /**
+     * 池名 -> 线程池
+     */
+    private static final Map<String, ExecutorService> EXECUTORS = new ConcurrentHashMap<>();
+    private static SimpleTimeLimiter simpleTimeLimiter;
+    /**
+     * CompletableFutureBridge 是否保存每次执行的任务耗时明细，null 表示非生产环境开启
+     */
+    private static volatile Boolean bridgeDetail;
+
+    static {
+        initExecutors(new AsyncProperties());
+    }
+
+    /**
+     * 根据配置初始化各业务线程池，已存在的线程池会在执行完已提交的任务后关闭
+     *
+     * @param properties
+     */
+    public static synchronized void initExecutors(AsyncProperties properties) {
+        boolean virtual = Boolean.TRUE.equals(properties.getVirtual());
+        for (AsyncPoolEnum pool : AsyncPoolEnum.values()) {
+            AsyncProperties.Pool conf = properties.getPools().getOrDefault(pool.getPool(), new AsyncProperties.Pool());
+            int max = Optional.ofNullable(conf.getMax()).orElse(pool.getMax());
+            int queue = Optional.ofNullable(conf.getQueue()).orElse(pool.getQueue());
+            ThreadFactory threadFactory = virtual ? virtualThreadFactory(pool.getPool()) : null;
+            if (threadFactory == null) {
+                threadFactory = new NamedThreadFactory("paicoding-" + pool.getPool() + "-");
+            }
+
+            ExecutorService old = EXECUTORS.put(pool.getPool(), new MonitoredThreadPoolExecutor(pool.getPool(), max, queue, pool.isDiscard(), threadFactory));
+            if (old == null) {
+                registerGauges(pool.getPool());
+            } else {
+                old.shutdown();
+            }
+        }
+        simpleTimeLimiter = SimpleTimeLimiter.create(executor(AsyncPoolEnum.DEFAULT));
+        bridgeDetail = properties.getBridgeDetail();
+    }
+
+    private static boolean isBridgeDetail() {
+        if (bridgeDetail == null) {
+            bridgeDetail = !EnvUtil.isPro();
+        }
+        return bridgeDetail;
+    }
+
+    /**
+     * 兼容原来的初始化方式，调整通用线程池的大小
+     *
+     * @param core 不再生效，线程按需创建到 max，空闲后回收
+     * @param max
+     */
+    public static void initExecutorService(int core, int max) {
+        AsyncProperties properties = new AsyncProperties();
+        AsyncProperties.Pool conf = new AsyncProperties.Pool();
+        conf.setMax(max);
+        properties.getPools().put(AsyncPoolEnum.DEFAULT.getPool(), conf);
+        initExecutors(properties);
+    }
+
+    private static void registerGauges(String pool) {
+        Gauge.builder(MonitoredThreadPoolExecutor.METRIC_NAME + ".active", EXECUTORS, m -> stat(m.get(pool), ThreadPoolExecutor::getActiveCount))
+                .description("正在执行任务的线程数").tag("pool", pool).register(Metrics.globalRegistry);
+        Gauge.builder(MonitoredThreadPoolExecutor.METRIC_NAME + ".queued", EXECUTORS, m -> stat(m.get(pool), e -> e.getQueue().size()))
+                .description("排队中的任务数").tag("pool", pool).register(Metrics.globalRegistry);
+        Gauge.builder(MonitoredThreadPoolExecutor.METRIC_NAME + ".size", EXECUTORS, m -> stat(m.get(pool), ThreadPoolExecutor::getPoolSize))
+                .description("当前线程数").tag("pool", pool).register(Metrics.globalRegistry);
+    }
+
+    private static double stat(ExecutorService executor, ToIntFunction<ThreadPoolExecutor> func) {
+        return executor instanceof ThreadPoolExecutor ? func.applyAsInt((ThreadPoolExecutor) executor) : 0;
+    }
+
+    /**
+     * 通过反射创建虚拟线程工厂，保证在 jdk8 下也能编译运行
+     *
+     * @param pool
+     * @return 当前jdk不支持虚拟线程时，返回null
+     */
+    private static ThreadFactory virtualThreadFactory(String pool) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = ofVirtual.getMethod("name", String.class, long.class).invoke(builder, "paicoding-" + pool + "-v-", 1L);
+            return (ThreadFactory) ofVirtual.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("当前jdk不支持虚拟线程，线程池[{}]使用普通线程", pool);
+            return null;
+        }
+    }
+
+    /**
+     * 获取业务线程池
+     *
+     * @param pool
+     * @return
+     */
+    public static ExecutorService executor(AsyncPoolEnum pool) {
+        return EXECUTORS.get(pool.getPool());
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
         private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
         private final AtomicInteger threadNumber = new AtomicInteger(1);
+        private final String prefix;
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
 
         public Thread newThread(Runnable r) {
             Thread thread = this.defaultFactory.newThread(r);
@@ -43,20 +153,9 @@ public class AsyncUtil {
                 thread.setDaemon(true);
             }
 
-            thread.setName("paicoding-" + this.threadNumber.getAndIncrement());
+            thread.setName(prefix + this.threadNumber.getAndIncrement());
             return thread;
         }
-    };
-    private static ExecutorService executorService;
-    private static SimpleTimeLimiter simpleTimeLimiter;
-
-    static {
-        initExecutorService(0, 50);
-    }
-
-    public static void initExecutorService(int core, int max) {
-        executorService = new ExecutorBuilder().setCorePoolSize(core).setMaxPoolSize(max).setKeepAliveTime(0).setKeepAliveTime(0, TimeUnit.SECONDS).setWorkQueue(new SynchronousQueue<Runnable>()).setHandler(new ThreadPoolExecutor.CallerRunsPolicy()).setThreadFactory(THREAD_FACTORY).buildFinalizable();
-        simpleTimeLimiter = SimpleTimeLimiter.create(executorService);
     }
 
 
@@ -76,11 +175,15 @@ public class AsyncUtil {
 
 
     public static void execute(Runnable call) {
-        executorService.execute(call);
+        execute(AsyncPoolEnum.DEFAULT, call);
+    }
+
+    public static void execute(AsyncPoolEnum pool, Runnable call) {
+        executor(pool).execute(call);
     }
 
     public static <T> Future<T> submit(Callable<T> t) {
-        return executorService.submit(t);
+        return executor(AsyncPoolEnum.DEFAULT).submit(t);
     }
 
 
@@ -110,20 +213,40 @@ public class AsyncUtil {
     }
 
 
+    /**
+     * 并发执行的任务耗时统计，每个任务的耗时都会记录到 {@link BridgeMetrics} 中
+     * <p>
+     * 开启明细时(paicoding.async.bridge-detail，默认非生产环境开启)，额外保存本次执行中每个任务的耗时，用于 prettyPrint 输出；
+     * 关闭时不再为每次执行分配耗时map
+     */
     public static class CompletableFutureBridge {
         private List<CompletableFuture> list;
+        /**
+         * 任务名 -> 本次执行的耗时(ms)，未开启明细时为null
+         */
         private Map<String, Long> cost;
         private String taskName;
+        private long startTime;
+        private long totalCost;
+        /**
+         * 未指定线程池时使用的线程池
+         */
+        private ExecutorService executorService;
 
         public CompletableFutureBridge() {
             this("CompletableFutureExecute");
         }
 
         public CompletableFutureBridge(String task) {
+            this(task, executor(AsyncPoolEnum.DEFAULT));
+        }
+
+        public CompletableFutureBridge(String task, ExecutorService executorService) {
             this.taskName = task;
+            this.executorService = executorService;
             list = new ArrayList<>();
-            cost = new ConcurrentHashMap<>();
-            cost.put(task, System.currentTimeMillis());
+            cost = isBridgeDetail() ? new ConcurrentHashMap<>() : null;
+            startTime = System.nanoTime();
         }
 
         /**
@@ -184,48 +307,53 @@ public class AsyncUtil {
 
         private Runnable runWithTime(Runnable run, String name) {
             return () -> {
-                startRecord(name);
+                long start = System.nanoTime();
                 try {
                     run.run();
                 } finally {
-                    endRecord(name);
+                    endRecord(name, start);
                 }
             };
         }
 
         private Supplier supplyWithTime(Supplier call, String name) {
             return () -> {
-                startRecord(name);
+                long start = System.nanoTime();
                 try {
                     return call.get();
                 } finally {
-                    endRecord(name);
+                    endRecord(name, start);
                 }
             };
         }
 
         public CompletableFutureBridge allExecuted() {
             CompletableFuture.allOf(ArrayUtil.toArray(list, CompletableFuture.class)).join();
-            endRecord(this.taskName);
+            long elapsed = System.nanoTime() - startTime;
+            BridgeMetrics.record(taskName, BridgeMetrics.TOTAL, elapsed);
+            totalCost = TimeUnit.NANOSECONDS.toMillis(elapsed);
             return this;
         }
 
-        private void startRecord(String name) {
-            cost.put(name, System.currentTimeMillis());
-        }
-
-        private void endRecord(String name) {
-            long now = System.currentTimeMillis();
-            cost.put(name, now - cost.getOrDefault(name, now));
+        private void endRecord(String name, long start) {
+            long elapsed = System.nanoTime() - start;
+            BridgeMetrics.record(taskName, name, elapsed);
+            if (cost != null) {
+                // 同名任务的耗时累加
+                cost.merge(name, TimeUnit.NANOSECONDS.toMillis(elapsed), Long::sum);
+            }
         }
 
         public void prettyPrint() {
+            if (cost == null) {
+                return;
+            }
+
             StringBuilder sb = new StringBuilder();
             sb.append('\n');
-            long totalCost = cost.remove(taskName);
             sb.append("StopWatch '").append(taskName).append("': running time = ").append(totalCost).append(" ms");
             sb.append('\n');
-            if (cost.size() <= 1) {
+            if (cost.isEmpty()) {
                 sb.append("No task info kept");
             } else {
                 sb.append("---------------------------------------------\n");
@@ -237,13 +365,11 @@ public class AsyncUtil {
                 pf.setGroupingUsed(false);
                 for (Map.Entry<String, Long> entry : cost.entrySet()) {
                     sb.append(entry.getValue()).append("\t\t");
-                    sb.append(pf.format(entry.getValue() / (double) totalCost)).append("\t\t");
+                    sb.append(pf.format(totalCost == 0 ? 0 : entry.getValue() / (double) totalCost)).append("\t\t");
                     sb.append(entry.getKey()).append("\n");
                 }
             }
-            if (!EnvUtil.isPro()) {
-                log.info("\n---------------------\n{}\n--------------------\n", sb);
-            }
+            log.info("\n---------------------\n{}\n--------------------\n", sb);
         }
     }
 
@@ -253,4 +379,15 @@ public class AsyncUtil {
         }
         return new CompletableFutureBridge();
     }
+
+    /**
+     * 在指定的业务线程池中并发执行
+     *
+     * @param pool
+     * @param name
+     * @return
+     */
+    public static CompletableFutureBridge concurrentExecutor(AsyncPoolEnum pool, String name) {
+        return new CompletableFutureBridge(name, executor(pool));
+    }
 }
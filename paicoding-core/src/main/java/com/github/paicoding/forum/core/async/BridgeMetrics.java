@@ -0,0 +1,77 @@
+package com.github.paicoding.forum.core.async;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CompletableFutureBridge 的并发任务耗时统计，通过 /actuator/metrics/paicoding.async.bridge 或 /actuator/prometheus 查看
+ * <p>
+ * - 按 (bridge, task) 缓存 Timer，重复执行时不再走注册中心的查找
+ * - 任务名可能是动态的(如未指定名称时取 lambda 的 toString)，每个 bridge 最多记录 {@link #MAX_TASKS} 个任务名，超出的归到 other 中
+ * - 每个 Timer 只输出几个固定的耗时区间，可以跨节点聚合；不输出客户端计算的分位数与 percentile histogram，避免 bucket 数随任务数膨胀
+ *
+ * @author YiHui
+ * @date 2024/4/10
+ */
+public class BridgeMetrics {
+    public static final String METRIC_NAME = "paicoding.async.bridge";
+
+    /**
+     * 整体耗时对应的任务名
+     */
+    public static final String TOTAL = "total";
+
+    private static final String OTHER = "other";
+
+    private static final int MAX_BRIDGES = 64;
+
+    private static final int MAX_TASKS = 32;
+
+    /**
+     * 耗时区间的边界
+     */
+    private static final Duration[] SLO_BOUNDARIES = {Duration.ofMillis(10), Duration.ofMillis(50),
+            Duration.ofMillis(200), Duration.ofSeconds(1)};
+
+    /**
+     * bridge -> task -> timer
+     */
+    private static final Map<String, Map<String, Timer>> TIMERS = new ConcurrentHashMap<>();
+
+    private BridgeMetrics() {
+    }
+
+    public static void record(String bridge, String task, long nanos) {
+        timer(bridge, task).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    static Timer timer(String bridge, String task) {
+        Map<String, Timer> tasks = TIMERS.get(bridge);
+        if (tasks == null) {
+            if (TIMERS.size() >= MAX_BRIDGES) {
+                bridge = OTHER;
+            }
+            tasks = TIMERS.computeIfAbsent(bridge, k -> new ConcurrentHashMap<>());
+        }
+
+        Timer timer = tasks.get(task);
+        if (timer != null) {
+            return timer;
+        }
+        if (tasks.size() >= MAX_TASKS) {
+            task = OTHER;
+        }
+        String bridgeName = bridge;
+        return tasks.computeIfAbsent(task, k -> Timer.builder(METRIC_NAME)
+                .description("并发任务耗时")
+                .tag("bridge", bridgeName)
+                .tag("task", k)
+                .serviceLevelObjectives(SLO_BOUNDARIES)
+                .register(Metrics.globalRegistry));
+    }
+}
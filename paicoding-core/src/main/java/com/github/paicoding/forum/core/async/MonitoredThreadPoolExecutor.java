@@ -0,0 +1,140 @@
+package com.github.paicoding.forum.core.async;
+
+import com.github.paicoding.forum.api.model.context.ReqInfoContext;
+import com.github.paicoding.forum.core.dal.DsContextHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带监控的线程池
+ * <p>
+ * - 核心线程数与最大线程数相同，空闲线程超时回收：ThreadPoolExecutor 只有在队列满了之后才会创建核心数以上的线程，
+ *   核心数小于最大数时，配置的最大线程数在正常负载下永远用不上，任务只会排队
+ * - 排队数有上限，线程池满时计数后再执行拒绝策略(调用线程执行 或 丢弃)
+ * - 记录任务的排队耗时与执行耗时，通过 /actuator/metrics/paicoding.async.task 查看
+ * - 线程会被复用，不能再依赖 InheritableThreadLocal 在创建线程时传递上下文；提交任务时显式传递请求上下文、数据源选择与 MDC
+ *
+ * @author YiHui
+ * @date 2024/4/9
+ */
+@Slf4j
+public class MonitoredThreadPoolExecutor extends ThreadPoolExecutor {
+    public static final String METRIC_NAME = "paicoding.async";
+
+    private final String pool;
+
+    private final Timer taskTimer;
+
+    private final Timer waitTimer;
+
+    /**
+     * @param pool          线程池名
+     * @param max           最大线程数，空闲60s的线程被回收
+     * @param queue         排队任务数上限
+     * @param discard       线程池满时是否丢弃任务，false 由提交任务的线程执行
+     * @param threadFactory
+     */
+    public MonitoredThreadPoolExecutor(String pool, int max, int queue, boolean discard, ThreadFactory threadFactory) {
+        super(max, max, 60, TimeUnit.SECONDS, workQueue(queue), threadFactory, rejectHandler(pool, discard));
+        allowCoreThreadTimeOut(true);
+        this.pool = pool;
+        this.taskTimer = Timer.builder(METRIC_NAME + ".task")
+                .description("异步任务执行耗时")
+                .tag("pool", pool)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+        this.waitTimer = Timer.builder(METRIC_NAME + ".wait")
+                .description("异步任务排队耗时")
+                .tag("pool", pool)
+                .register(Metrics.globalRegistry);
+    }
+
+    private static BlockingQueue<Runnable> workQueue(int queue) {
+        // 排队数为0时直接交给新线程，等价于原来的 SynchronousQueue 方式
+        return queue <= 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queue);
+    }
+
+    private static RejectedExecutionHandler rejectHandler(String pool, boolean discard) {
+        Counter rejected = Metrics.counter(METRIC_NAME + ".rejected", "pool", pool);
+        RejectedExecutionHandler handler = discard ? new DiscardPolicy() : new CallerRunsPolicy();
+        return (r, executor) -> {
+            rejected.increment();
+            if (discard) {
+                log.warn("异步线程池[{}]已满，丢弃任务", pool);
+            }
+            handler.rejectedExecution(r, executor);
+        };
+    }
+
+    public String getPool() {
+        return pool;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new ContextTask(command, System.nanoTime()));
+    }
+
+    /**
+     * 执行线程池任务，在执行前还原提交线程的上下文，执行后恢复为原来的上下文(拒绝策略为调用线程执行时，执行线程即提交线程)
+     */
+    private class ContextTask implements Runnable {
+        private final Runnable task;
+        private final long submitTime;
+        private final ReqInfoContext.ReqInfo reqInfo;
+        private final DsContextHolder.DsNode ds;
+        private final Map<String, String> mdc;
+
+        ContextTask(Runnable task, long submitTime) {
+            this.task = task;
+            this.submitTime = submitTime;
+            this.reqInfo = ReqInfoContext.getReqInfo();
+            this.ds = DsContextHolder.capture();
+            this.mdc = MDC.getCopyOfContextMap();
+        }
+
+        @Override
+        public void run() {
+            ReqInfoContext.ReqInfo preReqInfo = ReqInfoContext.getReqInfo();
+            DsContextHolder.DsNode preDs = DsContextHolder.capture();
+            Map<String, String> preMdc = MDC.getCopyOfContextMap();
+            replay(reqInfo, ds, mdc);
+
+            long start = System.nanoTime();
+            waitTimer.record(start - submitTime, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } finally {
+                taskTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                replay(preReqInfo, preDs, preMdc);
+            }
+        }
+
+        private void replay(ReqInfoContext.ReqInfo reqInfo, DsContextHolder.DsNode ds, Map<String, String> mdc) {
+            if (reqInfo == null) {
+                ReqInfoContext.clear();
+            } else {
+                ReqInfoContext.addReqInfo(reqInfo);
+            }
+            DsContextHolder.replay(ds);
+            if (mdc == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(mdc);
+            }
+        }
+    }
+}
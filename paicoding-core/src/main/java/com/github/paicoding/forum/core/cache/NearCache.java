@@ -0,0 +1,286 @@
+package com.github.paicoding.forum.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * RedisClient 前置的二级本地缓存
+ * <p>
+ * - 只有配置了有效期的key前缀才会走本地缓存，其他key直接穿透到redis
+ * - 写操作会同步失效本地缓存，并通过 redis pub/sub 广播给其他节点；一次操作(如管道)涉及的多个key合并为一条消息
+ * - 不走本地缓存的key不会触发广播，因此高频写入的计数类key不要配置到本地缓存中
+ * - 按key前缀统计 命中/未命中/淘汰/失效 次数，通过 actuator 的 metrics 查看
+ *
+ * @author YiHui
+ * @date 2024/3/2
+ */
+@Slf4j
+public class NearCache implements MessageListener {
+    private static final String METRIC_NAME = "paicoding.cache.near";
+    private static final String MSG_SPLIT = "|";
+    /**
+     * 单个key下缓存的结果类型上限，避免 sIsMember 这类按value缓存的场景无限膨胀
+     */
+    private static final int MAX_VARIANTS_PER_KEY = 64;
+    /**
+     * 缓存null值的占位符
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    /**
+     * 当前节点标识，用于忽略自己发出的失效消息
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+    private final byte[] channel;
+    private final RedisTemplate<String, String> template;
+    /**
+     * 按长度倒序的key前缀，用于最长匹配
+     */
+    private final List<String> prefixes;
+    private final Map<String, Long> prefixTtl;
+    private final Map<String, PrefixMeter> meters;
+    private final Cache<String, Entry> cache;
+
+    public NearCache(NearCacheProperties properties, RedisTemplate<String, String> template) {
+        this.template = template;
+        this.channel = properties.getChannel().getBytes(StandardCharsets.UTF_8);
+        this.prefixTtl = new HashMap<>(properties.getTtl());
+        this.prefixes = new ArrayList<>(prefixTtl.keySet());
+        this.prefixes.sort(Comparator.comparingInt(String::length).reversed());
+        this.meters = new HashMap<>();
+        prefixes.forEach(prefix -> meters.put(prefix, new PrefixMeter(prefix)));
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new PrefixExpiry())
+                .removalListener((String key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null && cause.wasEvicted()) {
+                        meters.get(entry.prefix).eviction.increment();
+                    }
+                })
+                .build();
+        log.info("redis本地缓存开启，生效的key前缀: {}", prefixTtl);
+    }
+
+    /**
+     * 从本地缓存中获取，未命中时从loader加载并回写本地缓存
+     *
+     * @param key     redis key，不包含全局前缀
+     * @param variant 同一个key下的不同查询方式，如 hGetAll 的返回类型、sIsMember 的成员
+     * @param loader  实际的redis查询
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, String variant, Supplier<T> loader) {
+        String prefix = matchPrefix(key);
+        if (prefix == null) {
+            return loader.get();
+        }
+
+        // 先拿到缓存项再去加载；若加载期间该key被失效，结果只会写入已被移除的缓存项，不会污染新的缓存
+        Entry entry = cache.get(key, k -> new Entry(prefix));
+        Object val = entry.values.get(variant);
+        if (val != null) {
+            meters.get(prefix).hit.increment();
+            return val == NULL_VALUE ? null : (T) val;
+        }
+
+        meters.get(prefix).miss.increment();
+        T ans = loader.get();
+        if (entry.values.size() < MAX_VARIANTS_PER_KEY) {
+            entry.values.put(variant, ans == null ? NULL_VALUE : ans);
+        }
+        return ans;
+    }
+
+    /**
+     * 批量获取，只对未命中的key调用loader加载
+     *
+     * @param keys    redis key，不包含全局前缀
+     * @param variant 查询方式
+     * @param loader  批量加载未命中的key
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getAll(List<String> keys, String variant, Function<List<String>, Map<String, T>> loader) {
+        Map<String, T> result = new HashMap<>(keys.size());
+        List<String> missKeys = new ArrayList<>();
+        Map<String, Entry> missEntries = new HashMap<>();
+        for (String key : keys) {
+            String prefix = matchPrefix(key);
+            if (prefix == null) {
+                missKeys.add(key);
+                continue;
+            }
+
+            Entry entry = cache.get(key, k -> new Entry(prefix));
+            Object val = entry.values.get(variant);
+            if (val != null) {
+                meters.get(prefix).hit.increment();
+                result.put(key, val == NULL_VALUE ? null : (T) val);
+            } else {
+                meters.get(prefix).miss.increment();
+                missKeys.add(key);
+                missEntries.put(key, entry);
+            }
+        }
+
+        if (missKeys.isEmpty()) {
+            return result;
+        }
+
+        Map<String, T> loaded = loader.apply(missKeys);
+        for (String key : missKeys) {
+            T ans = loaded.get(key);
+            result.put(key, ans);
+            Entry entry = missEntries.get(key);
+            if (entry != null && entry.values.size() < MAX_VARIANTS_PER_KEY) {
+                entry.values.put(variant, ans == null ? NULL_VALUE : ans);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 失效本地缓存，并广播给其他节点
+     *
+     * @param key redis key，不包含全局前缀
+     */
+    public void invalidate(String key) {
+        invalidate(Collections.singletonList(key));
+    }
+
+    /**
+     * 批量失效本地缓存，一次操作涉及的key合并为一条广播消息
+     *
+     * @param keys redis key，不包含全局前缀
+     */
+    public void invalidate(Collection<String> keys) {
+        StringBuilder msg = null;
+        for (String key : keys) {
+            String prefix = matchPrefix(key);
+            if (prefix == null) {
+                continue;
+            }
+
+            cache.invalidate(key);
+            meters.get(prefix).invalidate.increment();
+            if (msg == null) {
+                msg = new StringBuilder(nodeId);
+            }
+            msg.append(MSG_SPLIT).append(key);
+        }
+
+        if (msg == null) {
+            // 没有走本地缓存的key，无需广播
+            return;
+        }
+        byte[] body = msg.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            template.execute((RedisCallback<Long>) con -> con.publish(channel, body));
+        } catch (Exception e) {
+            // 广播失败时，其他节点只能依赖本地缓存的有效期来兜底
+            log.warn("本地缓存失效广播异常! keys: {}", keys, e);
+        }
+    }
+
+    /**
+     * 接收其他节点的失效广播，消息格式: nodeId|key1|key2...
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String msg = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = msg.indexOf(MSG_SPLIT);
+        if (index <= 0 || nodeId.equals(msg.substring(0, index))) {
+            return;
+        }
+
+        while (index < msg.length()) {
+            int end = msg.indexOf(MSG_SPLIT, index + 1);
+            if (end < 0) {
+                end = msg.length();
+            }
+            String key = msg.substring(index + 1, end);
+            String prefix = matchPrefix(key);
+            if (prefix != null) {
+                cache.invalidate(key);
+                meters.get(prefix).invalidate.increment();
+            }
+            index = end;
+        }
+    }
+
+    private String matchPrefix(String key) {
+        for (String prefix : prefixes) {
+            if (key.startsWith(prefix)) {
+                return prefix;
+            }
+        }
+        return null;
+    }
+
+    private static class Entry {
+        private final String prefix;
+        private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+        private Entry(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    /**
+     * 按key前缀设置不同的有效期
+     */
+    private class PrefixExpiry implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return TimeUnit.SECONDS.toNanos(prefixTtl.get(entry.prefix));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static class PrefixMeter {
+        private final Counter hit;
+        private final Counter miss;
+        private final Counter eviction;
+        private final Counter invalidate;
+
+        private PrefixMeter(String prefix) {
+            hit = Metrics.counter(METRIC_NAME, "prefix", prefix, "result", "hit");
+            miss = Metrics.counter(METRIC_NAME, "prefix", prefix, "result", "miss");
+            eviction = Metrics.counter(METRIC_NAME, "prefix", prefix, "result", "eviction");
+            invalidate = Metrics.counter(METRIC_NAME, "prefix", prefix, "result", "invalidate");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.paicoding.forum.core.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 开启 paicoding.cache.near.enable 时，为 RedisClient 挂上本地缓存
+ *
+ * @author YiHui
+ * @date 2024/3/2
+ */
+@Configuration
+@ConditionalOnProperty(prefix = NearCacheProperties.NEAR_CACHE_PREFIX, name = "enable", havingValue = "true")
+@EnableConfigurationProperties(NearCacheProperties.class)
+public class NearCacheConfig {
+
+    @Bean
+    public NearCache nearCache(NearCacheProperties properties, RedisTemplate<String, String> redisTemplate) {
+        NearCache nearCache = new NearCache(properties, redisTemplate);
+        RedisClient.registerNearCache(nearCache);
+        return nearCache;
+    }
+
+    /**
+     * 订阅其他节点的缓存失效广播
+     */
+    @Bean
+    public RedisMessageListenerContainer nearCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                    NearCache nearCache,
+                                                                    NearCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(nearCache, new ChannelTopic(properties.getChannel()));
+        return container;
+    }
+}
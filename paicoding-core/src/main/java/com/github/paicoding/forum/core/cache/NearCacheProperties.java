@@ -0,0 +1,39 @@
+package com.github.paicoding.forum.core.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RedisClient 前置的本地缓存配置
+ *
+ * @author YiHui
+ * @date 2024/3/2
+ */
+@Data
+@ConfigurationProperties(prefix = NearCacheProperties.NEAR_CACHE_PREFIX)
+public class NearCacheProperties {
+    public static final String NEAR_CACHE_PREFIX = "paicoding.cache.near";
+
+    /**
+     * true 表示开启本地缓存
+     */
+    private Boolean enable = false;
+
+    /**
+     * 本地缓存的最大key数量
+     */
+    private Integer maxSize = 10000;
+
+    /**
+     * 缓存失效广播的 redis 频道
+     */
+    private String channel = "pai_near_cache_invalidate";
+
+    /**
+     * key前缀 -> 本地缓存有效期(s)，只有命中前缀的key才会走本地缓存；存在多个匹配时，取最长的前缀
+     */
+    private Map<String, Long> ttl = new HashMap<>();
+}
@@ -5,19 +5,25 @@ import com.google.common.collect.Maps;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.DefaultTuple;
 import org.springframework.data.redis.connection.RedisZSetCommands;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.util.CollectionUtils;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -29,11 +35,48 @@ public class RedisClient {
     private static final Charset CODE = StandardCharsets.UTF_8;
     private static final String KEY_PREFIX = "pai_";
     private static RedisTemplate<String, String> template;
+    /**
+     * 本地缓存，未开启时为null
+     */
+    private static volatile NearCache nearCache;
 
     public static void register(RedisTemplate<String, String> template) {
         RedisClient.template = template;
     }
 
+    public static void registerNearCache(NearCache nearCache) {
+        RedisClient.nearCache = nearCache;
+    }
+
+    private static <T> T nearGet(String key, String variant, Supplier<T> loader) {
+        NearCache cache = nearCache;
+        return cache == null ? loader.get() : cache.get(key, variant, loader);
+    }
+
+    /**
+     * 写操作之后，失效本地缓存
+     *
+     * @param key
+     */
+    private static void nearInvalidate(String key) {
+        NearCache cache = nearCache;
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * 批量写操作之后，失效本地缓存，只发出一条广播
+     *
+     * @param keys
+     */
+    private static void nearInvalidate(Collection<String> keys) {
+        NearCache cache = nearCache;
+        if (cache != null && !keys.isEmpty()) {
+            cache.invalidate(keys);
+        }
+    }
+
     public static void nullCheck(Object... args) {
         for (Object obj : args) {
             if (obj == null) {
@@ -86,10 +129,10 @@ public class RedisClient {
      * @return
      */
     public static String getStr(String key) {
-        return template.execute((RedisCallback<String>) con -> {
+        return nearGet(key, "getStr", () -> template.execute((RedisCallback<String>) con -> {
             byte[] val = con.get(keyBytes(key));
             return val == null ? null : new String(val);
-        });
+        }));
     }
 
     /**
@@ -103,6 +146,7 @@ public class RedisClient {
             con.set(keyBytes(key), valBytes(value));
             return null;
         });
+        nearInvalidate(key);
     }
 
     /**
@@ -112,6 +156,7 @@ public class RedisClient {
      */
     public static void del(String key) {
         template.execute((RedisCallback<Long>) con -> con.del(keyBytes(key)));
+        nearInvalidate(key);
     }
 
     /**
@@ -125,6 +170,7 @@ public class RedisClient {
             connection.expire(keyBytes(key), expire);
             return null;
         });
+        nearInvalidate(key);
     }
 
     /**
@@ -136,16 +182,67 @@ public class RedisClient {
      * @return
      */
     public static Boolean setStrWithExpire(String key, String value, Long expire) {
-        return template.execute(new RedisCallback<Boolean>() {
+        Boolean ans = template.execute(new RedisCallback<Boolean>() {
             @Override
             public Boolean doInRedis(RedisConnection redisConnection) throws DataAccessException {
                 return redisConnection.setEx(keyBytes(key), expire, valBytes(value));
             }
         });
+        nearInvalidate(key);
+        return ans;
     }
 
     public static <T> Map<String, T> hGetAll(String key, Class<T> clz) {
+        // 本地缓存的结果会被多个调用方共享，因此返回不可变的map
+        return nearGet(key, "hGetAll:" + clz.getName(), () -> Collections.unmodifiableMap(doHGetAll(key, clz)));
+    }
+
+    private static <T> Map<String, T> doHGetAll(String key, Class<T> clz) {
         Map<byte[], byte[]> records = template.execute((RedisCallback<Map<byte[], byte[]>>) con -> con.hGetAll(keyBytes(key)));
+        return toMap(records, clz);
+    }
+
+    /**
+     * 批量获取多个hash的全部内容，一次管道请求完成
+     *
+     * @param keys
+     * @param clz
+     * @param <T>
+     * @return key -> hash内容，不存在的key返回空map
+     */
+    public static <T> Map<String, Map<String, T>> batchHGetAll(List<String> keys, Class<T> clz) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return Collections.emptyMap();
+        }
+
+        NearCache cache = nearCache;
+        if (cache == null) {
+            return doBatchHGetAll(keys, clz);
+        }
+        return cache.getAll(keys, "hGetAll:" + clz.getName(), missKeys -> {
+            Map<String, Map<String, T>> ans = doBatchHGetAll(missKeys, clz);
+            ans.replaceAll((k, v) -> Collections.unmodifiableMap(v));
+            return ans;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Map<String, Map<String, T>> doBatchHGetAll(List<String> keys, Class<T> clz) {
+        List<Object> records = template.execute((RedisCallback<List<Object>>) con -> {
+            con.openPipeline();
+            keys.forEach(key -> con.hGetAll(keyBytes(key)));
+            return con.closePipeline();
+        });
+
+        Map<String, Map<String, T>> result = Maps.newHashMapWithExpectedSize(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Object record = records == null || records.size() <= i ? null : records.get(i);
+            result.put(keys.get(i), record instanceof Map ? toMap((Map<byte[], byte[]>) record, clz) : Collections.emptyMap());
+        }
+        return result;
+    }
+
+    private static <T> Map<String, T> toMap(Map<byte[], byte[]> records, Class<T> clz) {
         if (records == null) {
             return Collections.emptyMap();
         }
@@ -181,25 +278,31 @@ public class RedisClient {
      * @return
      */
     public static Long hIncr(String key, String filed, Integer cnt) {
-        return template.execute((RedisCallback<Long>) con -> con.hIncrBy(keyBytes(key), valBytes(filed), cnt));
+        Long ans = template.execute((RedisCallback<Long>) con -> con.hIncrBy(keyBytes(key), valBytes(filed), cnt));
+        nearInvalidate(key);
+        return ans;
     }
 
     public static <T> Boolean hDel(String key, String field) {
-        return template.execute(new RedisCallback<Boolean>() {
+        Boolean ans = template.execute(new RedisCallback<Boolean>() {
             @Override
             public Boolean doInRedis(RedisConnection connection) throws DataAccessException {
                 return connection.hDel(keyBytes(key), valBytes(field)) > 0;
             }
         });
+        nearInvalidate(key);
+        return ans;
     }
 
     public static <T> Boolean hSet(String key, String field, T ans) {
-        return template.execute(new RedisCallback<Boolean>() {
+        Boolean res = template.execute(new RedisCallback<Boolean>() {
             @Override
             public Boolean doInRedis(RedisConnection redisConnection) throws DataAccessException {
                 return redisConnection.hSet(keyBytes(key), valBytes(field), valBytes(ans));
             }
         });
+        nearInvalidate(key);
+        return res;
     }
 
     public static <T> void hMSet(String key, Map<String, T> fields) {
@@ -211,6 +314,7 @@ public class RedisClient {
             connection.hMSet(keyBytes(key), val);
             return null;
         });
+        nearInvalidate(key);
     }
 
     public static <T> Map<String, T> hMGet(String key, final List<String> fields, Class<T> clz) {
@@ -237,12 +341,13 @@ public class RedisClient {
      * @return
      */
     public static <T> Boolean sIsMember(String key, T value) {
-        return template.execute(new RedisCallback<Boolean>() {
+        byte[] member = valBytes(value);
+        return nearGet(key, "sIsMember:" + new String(member, CODE), () -> template.execute(new RedisCallback<Boolean>() {
             @Override
             public Boolean doInRedis(RedisConnection connection) throws DataAccessException {
-                return connection.sIsMember(keyBytes(key), valBytes(value));
+                return connection.sIsMember(keyBytes(key), member);
             }
-        });
+        }));
     }
 
     /**
@@ -275,12 +380,14 @@ public class RedisClient {
      * @return
      */
     public static <T> boolean sPut(String key, T val) {
-        return template.execute(new RedisCallback<Long>() {
+        Long ans = template.execute(new RedisCallback<Long>() {
             @Override
             public Long doInRedis(RedisConnection connection) throws DataAccessException {
                 return connection.sAdd(keyBytes(key), valBytes(val));
             }
-        }) > 0;
+        });
+        nearInvalidate(key);
+        return ans > 0;
     }
 
     /**
@@ -298,6 +405,7 @@ public class RedisClient {
                 return null;
             }
         });
+        nearInvalidate(key);
     }
 
 
@@ -369,6 +477,44 @@ public class RedisClient {
     }
 
 
+    /**
+     * 批量写入成员及分数，已存在的成员覆盖分数
+     *
+     * @param key
+     * @param scores 成员 -> 分数
+     * @return 新增的成员数
+     */
+    public static Long zAdd(String key, Map<String, Double> scores) {
+        Set<RedisZSetCommands.Tuple> tuples = scores.entrySet().stream()
+                .map(entry -> new DefaultTuple(valBytes(entry.getKey()), entry.getValue()))
+                .collect(Collectors.toSet());
+        return template.execute((RedisCallback<Long>) connection -> connection.zAdd(keyBytes(key), tuples));
+    }
+
+    /**
+     * 分数在 [min, max] 之间的成员数
+     *
+     * @param key
+     * @param min
+     * @param max
+     * @return
+     */
+    public static Long zCount(String key, double min, double max) {
+        return template.execute((RedisCallback<Long>) connection -> connection.zCount(keyBytes(key), min, max));
+    }
+
+    /**
+     * 移除分数在 [min, max] 之间的成员
+     *
+     * @param key
+     * @param min
+     * @param max
+     * @return 移除的成员数
+     */
+    public static Long zRemRangeByScore(String key, double min, double max) {
+        return template.execute((RedisCallback<Long>) connection -> connection.zRemRangeByScore(keyBytes(key), min, max));
+    }
+
     public static <T> Long lPush(String key, T val) {
         return template.execute(new RedisCallback<Long>() {
             @Override
@@ -411,6 +557,56 @@ public class RedisClient {
         });
     }
 
+    /**
+     * 执行lua脚本，脚本按sha缓存在redis中，首次执行时自动加载
+     *
+     * @param script 脚本
+     * @param keys   脚本中的 KEYS，不包含全局前缀
+     * @param args   脚本中的 ARGV
+     * @return
+     */
+    public static <T> T eval(RedisScript<T> script, List<String> keys, Object... args) {
+        List<String> realKeys = keys.stream().map(key -> KEY_PREFIX + key).collect(Collectors.toList());
+        String[] realArgs = Arrays.stream(args).map(String::valueOf).toArray(String[]::new);
+        T ans = template.execute(script, realKeys, (Object[]) realArgs);
+        nearInvalidate(keys);
+        return ans;
+    }
+
+    /**
+     * HyperLogLog 基数统计，传入多个key时返回并集的基数
+     *
+     * @param keys
+     * @return
+     */
+    public static Long pfCount(String... keys) {
+        return template.execute((RedisCallback<Long>) connection -> connection.pfCount(keyBytes(Arrays.asList(keys))));
+    }
+
+    /**
+     * 将多个 HyperLogLog 合并到 destKey 中，可重复执行
+     *
+     * @param destKey
+     * @param sourceKeys
+     */
+    public static void pfMerge(String destKey, String... sourceKeys) {
+        template.execute((RedisCallback<Void>) connection -> {
+            connection.pfMerge(keyBytes(destKey), keyBytes(Arrays.asList(sourceKeys)));
+            return null;
+        });
+    }
+
+    /**
+     * key 占用的内存大小
+     *
+     * @param key
+     * @return 字节数，key不存在时返回null
+     */
+    public static Long memoryUsage(String key) {
+        return template.execute((RedisCallback<Long>) connection ->
+                (Long) connection.execute("MEMORY", "USAGE".getBytes(CODE), keyBytes(key)));
+    }
+
     private static <T> T toObj(byte[] ans, Class<T> clz) {
         if (ans == null) {
             return null;
@@ -425,7 +621,16 @@ public class RedisClient {
 
 
     public static PipelineAction pipelineAction() {
-        return new PipelineAction();
+        return new PipelineAction(true);
+    }
+
+    /**
+     * 只包含读命令的管道，执行后不失效本地缓存
+     *
+     * @return
+     */
+    public static PipelineAction readPipelineAction() {
+        return new PipelineAction(false);
     }
 
     /**
@@ -434,24 +639,51 @@ public class RedisClient {
     public static class PipelineAction {
         private List<Runnable> run = new ArrayList<>();
 
+        /**
+         * 管道中涉及的key，执行完毕之后统一失效本地缓存
+         */
+        private Set<String> keys = new HashSet<>();
+
+        /**
+         * false 表示管道中只有读命令，无需失效本地缓存
+         */
+        private final boolean write;
+
         private RedisConnection connection;
 
+        private PipelineAction(boolean write) {
+            this.write = write;
+        }
+
         public PipelineAction add(String key, BiConsumer<RedisConnection, byte[]> conn) {
             run.add(() -> conn.accept(connection, RedisClient.keyBytes(key)));
+            if (write) {
+                keys.add(key);
+            }
             return this;
         }
 
         public PipelineAction add(String key, String field, ThreeConsumer<RedisConnection, byte[], byte[]> conn) {
             run.add(() -> conn.accept(connection, RedisClient.keyBytes(key), valBytes(field)));
+            if (write) {
+                keys.add(key);
+            }
             return this;
         }
 
-        public void execute() {
-            template.executePipelined((RedisCallback<Object>) connection -> {
+        /**
+         * 执行管道中的命令
+         *
+         * @return 按添加顺序返回每个命令的结果
+         */
+        public List<Object> execute() {
+            List<Object> result = template.executePipelined((RedisCallback<Object>) connection -> {
                 PipelineAction.this.connection = connection;
                 run.forEach(Runnable::run);
                 return null;
             });
+            nearInvalidate(keys);
+            return result;
         }
     }
 
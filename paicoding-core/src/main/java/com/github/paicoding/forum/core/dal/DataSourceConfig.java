@@ -29,7 +29,7 @@ import java.util.Map;
 @Slf4j
 @Configuration
 @ConditionalOnProperty(prefix = "spring.dynamic", name = "primary")
-@EnableConfigurationProperties(DsProperties.class)
+@EnableConfigurationProperties({DsProperties.class, SqlStatProperties.class})
 public class DataSourceConfig {
 
     private Environment environment;
@@ -40,13 +40,38 @@ public class DataSourceConfig {
     }
 
     @Bean
-    public DsAspect dsAspect() {
-        return new DsAspect();
+    public DsAspect dsAspect(MyRoutingDataSource dataSource) {
+        DsAspect dsAspect = new DsAspect();
+        dsAspect.setReplicaRouter(dataSource.getReplicaRouter());
+        return dsAspect;
     }
 
+    /**
+     * 只读事务自动路由到从库
+     */
     @Bean
-    public SqlStateInterceptor sqlStateInterceptor() {
-        return new SqlStateInterceptor();
+    @ConditionalOnProperty(prefix = DsProperties.DS_PREFIX + ".routing", name = "enable", havingValue = "true")
+    public ReadOnlyRoutingAspect readOnlyRoutingAspect(MyRoutingDataSource dataSource) {
+        return new ReadOnlyRoutingAspect(dataSource.getReplicaRouter());
+    }
+
+    /**
+     * 记录用户的写操作，实现读自己的写
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = DsProperties.DS_PREFIX + ".routing", name = "enable", havingValue = "true")
+    public WriteStickyInterceptor writeStickyInterceptor(MyRoutingDataSource dataSource) {
+        return new WriteStickyInterceptor(dataSource.getReplicaRouter());
+    }
+
+    @Bean
+    public SqlStatistics sqlStatistics() {
+        return new SqlStatistics();
+    }
+
+    @Bean
+    public SqlStateInterceptor sqlStateInterceptor(SqlStatProperties sqlStatProperties, SqlStatistics sqlStatistics) {
+        return new SqlStateInterceptor(sqlStatProperties, sqlStatistics);
     }
 
     /**
@@ -57,9 +82,14 @@ public class DataSourceConfig {
      */
     @Bean
     @Primary
-    public DataSource dataSource(DsProperties dsProperties) {
+    public MyRoutingDataSource dataSource(DsProperties dsProperties) {
         Map<Object, Object> targetDataSources = Maps.newHashMapWithExpectedSize(dsProperties.getDatasource().size());
-        dsProperties.getDatasource().forEach((k, v) -> targetDataSources.put(k.toUpperCase(), initDataSource(k, v)));
+        Map<String, DsPoolMetrics> poolMetrics = Maps.newHashMapWithExpectedSize(dsProperties.getDatasource().size());
+        dsProperties.getDatasource().forEach((k, v) -> {
+            DataSource ds = initDataSource(k, v);
+            targetDataSources.put(k.toUpperCase(), ds);
+            poolMetrics.put(k.toUpperCase(), DsPoolMetrics.monitor(k.toUpperCase(), ds));
+        });
 
         if (CollectionUtils.isEmpty(targetDataSources)) {
             throw new IllegalStateException("多数据源配置，请以 spring.dynamic 开头");
@@ -79,9 +109,33 @@ public class DataSourceConfig {
         log.info("动态数据源，默认启用为： " + key);
         myRoutingDataSource.setDefaultTargetDataSource(targetDataSources.get(key));
         myRoutingDataSource.setTargetDataSources(targetDataSources);
+        if (Boolean.TRUE.equals(dsProperties.getRouting().getEnable())) {
+            myRoutingDataSource.setReplicaRouter(initReplicaRouter(dsProperties.getRouting(), (String) key, poolMetrics));
+        }
         return myRoutingDataSource;
     }
 
+    /**
+     * 读写分离的从库路由
+     *
+     * @param routing     路由配置
+     * @param master      主库
+     * @param poolMetrics 所有数据源
+     * @return
+     */
+    private ReplicaRouter initReplicaRouter(DsProperties.Routing routing, String master, Map<String, DsPoolMetrics> poolMetrics) {
+        Map<String, DsPoolMetrics> replicas = Maps.newHashMap();
+        poolMetrics.forEach((ds, metrics) -> {
+            boolean replica = CollectionUtils.isEmpty(routing.getReplicas())
+                    ? ds.startsWith(MasterSlaveDsEnum.SLAVE.name())
+                    : routing.getReplicas().stream().anyMatch(ds::equalsIgnoreCase);
+            if (replica && !ds.equals(master)) {
+                replicas.put(ds, metrics);
+            }
+        });
+        return new ReplicaRouter(routing, master, replicas);
+    }
+
 
     public DataSource initDataSource(String prefix, DataSourceProperties properties) {
         if (!DruidCheckUtil.hasDuridPkg()) {
@@ -6,6 +6,7 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.reflect.Method;
 
@@ -15,6 +16,14 @@ import java.lang.reflect.Method;
  */
 @Aspect
 public class DsAspect {
+    /**
+     * 开启读写分离路由时，@DsAno(SLAVE) 的方法由路由器选择从库，并在从库异常时回退主库
+     */
+    private ReplicaRouter replicaRouter;
+
+    public void setReplicaRouter(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
     /**
      * 切入点, 拦截类上、方法上有注解的方法，用于切换数据源
      */
@@ -25,6 +34,11 @@ public class DsAspect {
     @Around("pointcut()")
     public Object around(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
         DsAno ds = getDsAno(proceedingJoinPoint);
+        if (replicaRouter != null && ds != null && StringUtils.isBlank(ds.ds()) && ds.value() == MasterSlaveDsEnum.SLAVE) {
+            // 已处于事务中时连接已经绑定，沿用事务的连接即可
+            return TransactionSynchronizationManager.isActualTransactionActive() ? proceedingJoinPoint.proceed() : replicaRouter.proceedOnReplica(proceedingJoinPoint);
+        }
+
         try {
             if (ds != null && (StringUtils.isNotBlank(ds.ds()) || ds.value() != null)) {
                 // 当上下文中没有时，则写入线程上下文，应该用哪个DB
@@ -50,6 +50,28 @@ public class DsContextHolder {
         }
     }
 
+    /**
+     * 获取当前完整的数据源上下文，用于线程池中的任务传递
+     *
+     * @return
+     */
+    public static DsNode capture() {
+        return CONTEXT_HOLDER.get();
+    }
+
+    /**
+     * 直接替换为传入的数据源上下文，与 {@link #capture()} 配合使用
+     *
+     * @param node 为null时清空
+     */
+    public static void replay(DsNode node) {
+        if (node == null) {
+            CONTEXT_HOLDER.remove();
+        } else {
+            CONTEXT_HOLDER.set(node);
+        }
+    }
+
     /**
      * 使用主数据源类型
      */
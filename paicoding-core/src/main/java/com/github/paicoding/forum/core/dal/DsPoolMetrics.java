@@ -0,0 +1,89 @@
+package com.github.paicoding.forum.core.dal;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+
+import javax.sql.DataSource;
+import java.util.function.ToIntFunction;
+
+/**
+ * 数据源连接池的指标
+ * <p>
+ * 输出 paicoding.ds.pool.active / idle / pending 三个指标，tag ds 为数据源名；同时提供给从库选择时判断繁忙程度
+ *
+ * @author YiHui
+ * @date 2024/4/6
+ */
+public class DsPoolMetrics {
+    private static final String METRIC_NAME = "paicoding.ds.pool";
+
+    private final ToIntFunction<DataSource> active;
+    private final ToIntFunction<DataSource> idle;
+    private final ToIntFunction<DataSource> pending;
+    private final DataSource dataSource;
+
+    private DsPoolMetrics(DataSource dataSource, ToIntFunction<DataSource> active, ToIntFunction<DataSource> idle, ToIntFunction<DataSource> pending) {
+        this.dataSource = dataSource;
+        this.active = active;
+        this.idle = idle;
+        this.pending = pending;
+    }
+
+    /**
+     * 注册数据源的连接池指标，支持 Hikari 与 Druid，其他数据源的指标恒为0
+     *
+     * @param name       数据源名
+     * @param dataSource
+     * @return
+     */
+    public static DsPoolMetrics monitor(String name, DataSource dataSource) {
+        DsPoolMetrics metrics;
+        if (dataSource instanceof HikariDataSource) {
+            // 连接池在第一次获取连接时才会初始化，之前 MXBean 为null
+            metrics = new DsPoolMetrics(dataSource,
+                    ds -> hikariPool(ds) == null ? 0 : hikariPool(ds).getActiveConnections(),
+                    ds -> hikariPool(ds) == null ? 0 : hikariPool(ds).getIdleConnections(),
+                    ds -> hikariPool(ds) == null ? 0 : hikariPool(ds).getThreadsAwaitingConnection());
+        } else if (DruidCheckUtil.hasDuridPkg() && dataSource instanceof DruidDataSource) {
+            metrics = new DsPoolMetrics(dataSource,
+                    ds -> ((DruidDataSource) ds).getActiveCount(),
+                    ds -> ((DruidDataSource) ds).getPoolingCount(),
+                    ds -> ((DruidDataSource) ds).getWaitThreadCount());
+        } else {
+            metrics = new DsPoolMetrics(dataSource, ds -> 0, ds -> 0, ds -> 0);
+        }
+
+        Gauge.builder(METRIC_NAME + ".active", metrics, DsPoolMetrics::active).tag("ds", name).strongReference(true).register(Metrics.globalRegistry);
+        Gauge.builder(METRIC_NAME + ".idle", metrics, DsPoolMetrics::idle).tag("ds", name).strongReference(true).register(Metrics.globalRegistry);
+        Gauge.builder(METRIC_NAME + ".pending", metrics, DsPoolMetrics::pending).tag("ds", name).strongReference(true).register(Metrics.globalRegistry);
+        return metrics;
+    }
+
+    private static HikariPoolMXBean hikariPool(DataSource ds) {
+        return ((HikariDataSource) ds).getHikariPoolMXBean();
+    }
+
+    public int active() {
+        return active.applyAsInt(dataSource);
+    }
+
+    public int idle() {
+        return idle.applyAsInt(dataSource);
+    }
+
+    public int pending() {
+        return pending.applyAsInt(dataSource);
+    }
+
+    /**
+     * 繁忙程度：使用中的连接 + 等待获取连接的线程
+     *
+     * @return
+     */
+    public int busy() {
+        return active() + pending();
+    }
+}
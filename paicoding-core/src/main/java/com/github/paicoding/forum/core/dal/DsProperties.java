@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -25,4 +28,37 @@ public class DsProperties {
      * 多数据源配置
      */
     private Map<String, DataSourceProperties> datasource;
+
+    /**
+     * 读写分离的自动路由配置
+     */
+    private Routing routing = new Routing();
+
+    @Data
+    public static class Routing {
+        /**
+         * true 表示只读事务、标注了 @DsAno(SLAVE) 的查询自动路由到从库
+         */
+        private Boolean enable = false;
+
+        /**
+         * 作为从库的数据源名；不配置时，取所有以 slave 开头的数据源
+         */
+        private List<String> replicas = new ArrayList<>();
+
+        /**
+         * 从库权重，默认为1
+         */
+        private Map<String, Integer> weights = new HashMap<>();
+
+        /**
+         * 用户写操作之后，该用户的读请求在这段时间内(ms)继续走主库，避免读不到自己刚写入的数据
+         */
+        private Long stickyWindow = 3000L;
+
+        /**
+         * 从库异常之后，暂停路由到该从库的时长(ms)
+         */
+        private Long failCooldown = 30000L;
+    }
 }
\ No newline at end of file
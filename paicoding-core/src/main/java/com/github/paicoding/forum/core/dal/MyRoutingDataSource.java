@@ -3,15 +3,63 @@ package com.github.paicoding.forum.core.dal;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 import org.springframework.lang.Nullable;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
 /**
  * @author YiHui
  * @date 2023/4/30
  */
 public class MyRoutingDataSource extends AbstractRoutingDataSource {
+    /**
+     * 开启读写分离路由时，SLAVE 不再对应某个具体的数据源，而是由路由器从所有从库中选择一个
+     */
+    private ReplicaRouter replicaRouter;
+
+    public void setReplicaRouter(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    public ReplicaRouter getReplicaRouter() {
+        return replicaRouter;
+    }
+
+    /**
+     * 业务查询方法上标注了 @DsAno(SLAVE)，但没有配置从库时，直接使用默认数据源
+     */
     @Nullable
     @Override
     protected Object determineCurrentLookupKey() {
-        return DsContextHolder.get();
+        String key = DsContextHolder.get();
+        if (MasterSlaveDsEnum.SLAVE.name().equals(key) && !getResolvedDataSources().containsKey(key)) {
+            return null;
+        }
+        return key;
     }
 
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicaRouter == null || !MasterSlaveDsEnum.SLAVE.name().equals(DsContextHolder.get())) {
+            return super.getConnection();
+        }
+
+        String replica = replicaRouter.route();
+        if (replica == null) {
+            return masterDataSource().getConnection();
+        }
+
+        try {
+            return getResolvedDataSources().get(replica).getConnection();
+        } catch (SQLException e) {
+            // 从库获取连接失败，直接回退到主库
+            replicaRouter.markFailure(replica, e);
+            return masterDataSource().getConnection();
+        }
+    }
+
+    private DataSource masterDataSource() {
+        DataSource master = getResolvedDataSources().get(replicaRouter.getMaster());
+        return master == null ? getResolvedDefaultDataSource() : master;
+    }
 }
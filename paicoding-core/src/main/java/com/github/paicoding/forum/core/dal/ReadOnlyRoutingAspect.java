@@ -0,0 +1,53 @@
+package com.github.paicoding.forum.core.dal;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+/**
+ * 只读事务自动路由到从库
+ * <p>
+ * 需要在事务切面之前执行，保证事务开启时获取的就是从库连接；已经处于事务中、或者已经手动指定了数据源时，不做处理
+ *
+ * @author YiHui
+ * @date 2024/4/6
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadOnlyRoutingAspect {
+    private final ReplicaRouter replicaRouter;
+
+    public ReadOnlyRoutingAspect(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    @Pointcut("@annotation(org.springframework.transaction.annotation.Transactional) || @within(org.springframework.transaction.annotation.Transactional)")
+    public void pointcut() {
+    }
+
+    @Around("pointcut()")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (DsContextHolder.get() != null || TransactionSynchronizationManager.isActualTransactionActive() || !isReadOnly(joinPoint)) {
+            return joinPoint.proceed();
+        }
+        return replicaRouter.proceedOnReplica(joinPoint);
+    }
+
+    private boolean isReadOnly(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getSignature().getDeclaringType(), Transactional.class);
+        }
+        return transactional != null && transactional.readOnly();
+    }
+}
@@ -0,0 +1,212 @@
+package com.github.paicoding.forum.core.dal;
+
+import com.github.paicoding.forum.api.model.context.ReqInfoContext;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.net.ConnectException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读写分离时的从库路由
+ * <p>
+ * - 从库选择：在健康的从库中，选择 (使用中的连接 + 等待连接的线程 + 1) / 权重 最小的一个
+ * - 故障回退：从库获取连接或执行sql出现连接类异常时，暂停路由到该从库一段时间，本次查询改走主库重试
+ * - 读自己的写：用户执行写操作之后的一小段时间内，该用户的查询继续走主库；只在当前节点内生效，多节点部署时依赖负载均衡的会话保持
+ * - 路由结果通过 paicoding.ds.route 指标查看，tag target 为目标数据源，reason 为路由原因
+ *
+ * @author YiHui
+ * @date 2024/4/6
+ */
+@Slf4j
+public class ReplicaRouter {
+    private static final String METRIC_NAME = "paicoding.ds.route";
+
+    /**
+     * 当前线程最近一次路由到的从库，用于执行异常时定位故障的从库
+     */
+    private static final ThreadLocal<String> ROUTED_REPLICA = new ThreadLocal<>();
+
+    private final String master;
+    private final Map<String, DsPoolMetrics> replicas;
+    private final Map<String, Integer> weights;
+    private final long failCooldown;
+    /**
+     * 从库 -> 暂停路由的截止时间
+     */
+    private final Map<String, Long> unhealthyUntil = new ConcurrentHashMap<>();
+    /**
+     * 近期执行过写操作的用户
+     */
+    private final Cache<Long, Boolean> recentWriters;
+
+    private final Map<String, Counter> replicaCounter = new ConcurrentHashMap<>();
+    private final Counter stickyCounter;
+    private final Counter noReplicaCounter;
+    private final Counter failbackCounter;
+
+    /**
+     * @param routing  路由配置
+     * @param master   主库数据源名
+     * @param replicas 从库数据源名 -> 连接池指标
+     */
+    public ReplicaRouter(DsProperties.Routing routing, String master, Map<String, DsPoolMetrics> replicas) {
+        this.master = master;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.weights = new ConcurrentHashMap<>();
+        replicas.keySet().forEach(ds -> weights.put(ds, Math.max(1, routing.getWeights().entrySet().stream()
+                .filter(e -> e.getKey().equalsIgnoreCase(ds)).map(Map.Entry::getValue).findFirst().orElse(1))));
+        this.failCooldown = routing.getFailCooldown();
+        this.recentWriters = CacheBuilder.newBuilder()
+                .expireAfterWrite(routing.getStickyWindow(), TimeUnit.MILLISECONDS)
+                .build();
+
+        stickyCounter = Metrics.counter(METRIC_NAME, "target", master, "reason", "sticky");
+        noReplicaCounter = Metrics.counter(METRIC_NAME, "target", master, "reason", "no_replica");
+        failbackCounter = Metrics.counter(METRIC_NAME, "target", master, "reason", "failback");
+        log.info("读写分离路由开启，主库: {}, 从库权重: {}", master, weights);
+    }
+
+    public String getMaster() {
+        return master;
+    }
+
+    /**
+     * 为查询选择一个从库
+     *
+     * @return 返回null表示走主库
+     */
+    public String route() {
+        ROUTED_REPLICA.remove();
+        if (isRecentWriter()) {
+            stickyCounter.increment();
+            return null;
+        }
+
+        String ans = null;
+        double minScore = Double.MAX_VALUE;
+        long now = System.currentTimeMillis();
+        List<String> candidates = new ArrayList<>(replicas.keySet());
+        // 随机起点，分数相同的从库之间均匀分布
+        int offset = candidates.isEmpty() ? 0 : ThreadLocalRandom.current().nextInt(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            String ds = candidates.get((i + offset) % candidates.size());
+            Long until = unhealthyUntil.get(ds);
+            if (until != null && until > now) {
+                continue;
+            }
+
+            double score = (replicas.get(ds).busy() + 1.0) / weights.get(ds);
+            if (score < minScore) {
+                minScore = score;
+                ans = ds;
+            }
+        }
+
+        if (ans == null) {
+            noReplicaCounter.increment();
+            return null;
+        }
+        ROUTED_REPLICA.set(ans);
+        replicaCounter.computeIfAbsent(ans, ds -> Metrics.counter(METRIC_NAME, "target", ds, "reason", "replica")).increment();
+        return ans;
+    }
+
+    /**
+     * 从库异常，暂停路由到该从库
+     *
+     * @param replica
+     * @param e
+     */
+    public void markFailure(String replica, Throwable e) {
+        unhealthyUntil.put(replica, System.currentTimeMillis() + failCooldown);
+        failbackCounter.increment();
+        log.warn("从库异常，{}ms 内不再路由到该从库: {}", failCooldown, replica, e);
+    }
+
+    /**
+     * 当前用户执行了写操作
+     */
+    public void markWrite() {
+        Long userId = currentUser();
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    private boolean isRecentWriter() {
+        Long userId = currentUser();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    private Long currentUser() {
+        ReqInfoContext.ReqInfo reqInfo = ReqInfoContext.getReqInfo();
+        return reqInfo == null ? null : reqInfo.getUserId();
+    }
+
+    /**
+     * 在从库上执行查询；从库出现连接类异常时，切换到主库重试一次
+     *
+     * @param joinPoint
+     * @return
+     * @throws Throwable
+     */
+    public Object proceedOnReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        ROUTED_REPLICA.remove();
+        DsContextHolder.slave();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            String replica = ROUTED_REPLICA.get();
+            if (replica == null || !isConnectionFailure(e)) {
+                throw e;
+            }
+
+            markFailure(replica, e);
+            DsContextHolder.master();
+            try {
+                return joinPoint.proceed();
+            } finally {
+                DsContextHolder.reset();
+            }
+        } finally {
+            ROUTED_REPLICA.remove();
+            DsContextHolder.reset();
+        }
+    }
+
+    /**
+     * 判断是否为连接类的异常，只有这类异常才值得换到主库重试
+     *
+     * @param e
+     * @return
+     */
+    private boolean isConnectionFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof DataAccessResourceFailureException
+                    || cause instanceof TransientDataAccessResourceException
+                    || cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLNonTransientConnectionException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.paicoding.forum.core.dal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * sql执行日志与统计的配置
+ *
+ * @author YiHui
+ * @date 2024/4/5
+ */
+@Data
+@ConfigurationProperties(prefix = SqlStatProperties.SQL_STAT_PREFIX)
+public class SqlStatProperties {
+    public static final String SQL_STAT_PREFIX = "paicoding.sql";
+
+    /**
+     * sql日志的输出方式
+     */
+    private LogMode logMode = LogMode.FULL;
+
+    /**
+     * 慢sql阈值(ms)，超过阈值的sql一定会输出完整的语句
+     */
+    private Long slowThreshold = 200L;
+
+    /**
+     * 未超过慢sql阈值的sql，输出日志的采样比例，取值 [0, 1]
+     */
+    private Double sampleRate = 0.01;
+
+    public enum LogMode {
+        /**
+         * 每条sql都输出完整的语句
+         */
+        FULL,
+        /**
+         * 只记录执行耗时与次数，慢sql与采样命中的sql才输出完整的语句
+         */
+        SAMPLE;
+    }
+}
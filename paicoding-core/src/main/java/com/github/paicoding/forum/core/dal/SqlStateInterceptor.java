@@ -3,11 +3,13 @@ package com.github.paicoding.forum.core.dal;
 import com.alibaba.druid.pool.DruidPooledPreparedStatement;
 import com.baomidou.mybatisplus.core.MybatisParameterHandler;
 import com.github.paicoding.forum.core.util.DateUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.mysql.cj.MysqlConnection;
 import com.zaxxer.hikari.pool.HikariProxyConnection;
 import com.zaxxer.hikari.pool.HikariProxyPreparedStatement;
-import io.github.classgraph.utils.ReflectionUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -15,6 +17,7 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.plugin.*;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
 import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
@@ -22,13 +25,19 @@ import org.springframework.util.CollectionUtils;
 
 import java.sql.Connection;
 import java.sql.Date;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
 import java.util.Properties;
-import java.util.regex.Matcher;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * mybatis拦截器。输出sql执行情况
+ * <p>
+ * - 按 mapper 方法记录执行次数与耗时分布，见 {@link SqlStatistics}
+ * - FULL 模式下每条sql都输出完整语句；SAMPLE 模式下只有慢sql与采样命中的sql才会拼接并输出完整语句
+ * - db用户名按物理连接缓存，避免每次执行sql都查询连接的元数据
  *
  * @author YiHui
  * @date 2023/5/01
@@ -36,64 +45,132 @@ import java.util.regex.Matcher;
 @Slf4j
 @Intercepts({@Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}), @Signature(type = StatementHandler.class, method = "update", args = {Statement.class})})
 public class SqlStateInterceptor implements Interceptor {
+    private static final String UNKNOWN_STATEMENT = "unknown";
+
+    private final SqlStatProperties properties;
+
+    private final SqlStatistics statistics;
+
+    /**
+     * 物理连接 -> db用户名；连接池中的连接会被复用，弱引用的key保证连接关闭之后自动回收
+     */
+    private final Cache<Connection, String> userNameCache = CacheBuilder.newBuilder().weakKeys().build();
+
+    public SqlStateInterceptor(SqlStatProperties properties, SqlStatistics statistics) {
+        this.properties = properties;
+        this.statistics = statistics;
+    }
+
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
-        long time = System.currentTimeMillis();
+        long start = System.nanoTime();
         StatementHandler statementHandler = (StatementHandler) invocation.getTarget();
-        String sql = buildSql(statementHandler);
-        Object[] args = invocation.getArgs();
-        String uname = "";
-        if (args[0] instanceof HikariProxyPreparedStatement) {
-            HikariProxyConnection connection = (HikariProxyConnection) ((HikariProxyPreparedStatement) invocation.getArgs()[0]).getConnection();
-            uname = connection.getMetaData().getUserName();
-        } else if (DruidCheckUtil.hasDuridPkg()) {
-            if (args[0] instanceof DruidPooledPreparedStatement) {
-                Connection connection = ((DruidPooledPreparedStatement) args[0]).getStatement().getConnection();
-                if (connection instanceof MysqlConnection) {
-                    Properties properties = ((MysqlConnection) connection).getProperties();
-                    uname = properties.getProperty("user");
-                }
-            }
-        }
+        MappedStatement mappedStatement = getMappedStatement(statementHandler);
+        boolean fullLog = properties.getLogMode() == SqlStatProperties.LogMode.FULL;
+        // 执行之后参数对象可能被回写（如自增主键），因此全量输出时在执行前拼接sql
+        String sql = fullLog ? buildSql(statementHandler, mappedStatement) : null;
 
         Object rs;
         try {
             rs = invocation.proceed();
         } catch (Throwable e) {
-            log.error("error sql: " + sql, e);
+            log.error("error sql: " + (sql == null ? buildSql(statementHandler, mappedStatement) : sql), e);
             throw e;
         } finally {
-            long cost = System.currentTimeMillis() - time;
-            sql = this.replaceContinueSpace(sql);
-            // 这个方法的总耗时
-            log.info("\n\n ============= \nsql ----> {}\nuser ----> {}\ncost ----> {}\n ============= \n", sql, uname, cost);
+            long cost = System.nanoTime() - start;
+            boolean slow = cost >= TimeUnit.MILLISECONDS.toNanos(properties.getSlowThreshold());
+            SqlStatistics.StatementStat stat = statistics.record(mappedStatement == null ? UNKNOWN_STATEMENT : mappedStatement.getId(), cost, slow);
+            if (fullLog || slow || ThreadLocalRandom.current().nextDouble() < properties.getSampleRate()) {
+                if (sql == null) {
+                    sql = buildSql(statementHandler, mappedStatement);
+                }
+                sql = this.replaceContinueSpace(sql);
+                String uname = getUserName(invocation.getArgs()[0]);
+                long costMs = TimeUnit.NANOSECONDS.toMillis(cost);
+                if (slow) {
+                    stat.setLastSlowSql(sql);
+                    log.warn("\n\n ============= \nslow sql ----> {}\nuser ----> {}\ncost ----> {}\n ============= \n", sql, uname, costMs);
+                } else {
+                    // 这个方法的总耗时
+                    log.info("\n\n ============= \nsql ----> {}\nuser ----> {}\ncost ----> {}\n ============= \n", sql, uname, costMs);
+                }
+            }
         }
 
         return rs;
     }
 
     /**
-     * 拼接sql
+     * 获取执行sql的db用户名
+     *
+     * @param statement
+     * @return
+     */
+    private String getUserName(Object statement) {
+        try {
+            Connection connection = getPhysicalConnection(statement);
+            if (connection == null) {
+                return "";
+            }
+            return userNameCache.get(connection, () -> {
+                if (connection instanceof MysqlConnection) {
+                    String user = ((MysqlConnection) connection).getProperties().getProperty("user");
+                    return user == null ? "" : user;
+                }
+                return connection.getMetaData().getUserName();
+            });
+        } catch (Exception e) {
+            log.debug("获取db用户名失败!", e);
+            return "";
+        }
+    }
+
+    /**
+     * 连接池返回的连接为代理对象，每次借出都可能不同，这里获取底层的物理连接作为缓存的key
+     *
+     * @param statement
+     * @return
+     */
+    private Connection getPhysicalConnection(Object statement) throws SQLException {
+        if (statement instanceof HikariProxyPreparedStatement) {
+            HikariProxyConnection connection = (HikariProxyConnection) ((HikariProxyPreparedStatement) statement).getConnection();
+            return connection.unwrap(Connection.class);
+        } else if (DruidCheckUtil.hasDuridPkg() && statement instanceof DruidPooledPreparedStatement) {
+            return ((DruidPooledPreparedStatement) statement).getStatement().getConnection();
+        } else if (statement instanceof Statement) {
+            return ((Statement) statement).getConnection();
+        }
+        return null;
+    }
+
+    /**
+     * 获取sql对应的mapper方法信息
      *
      * @param statementHandler
      * @return
      */
-    private String buildSql(StatementHandler statementHandler) {
-        BoundSql boundSql = statementHandler.getBoundSql();
-        Configuration configuration = null;
-        if (statementHandler.getParameterHandler() instanceof DefaultParameterHandler) {
-            DefaultParameterHandler handler = (DefaultParameterHandler) statementHandler.getParameterHandler();
-            configuration = (Configuration) ReflectionUtils.getFieldVal(handler, "configuration", false);
-        } else if (statementHandler.getParameterHandler() instanceof MybatisParameterHandler) {
-            MybatisParameterHandler paramHandler = (MybatisParameterHandler) statementHandler.getParameterHandler();
-            configuration = ((MappedStatement) ReflectionUtils.getFieldVal(paramHandler, "mappedStatement", false)).getConfiguration();
+    private MappedStatement getMappedStatement(StatementHandler statementHandler) {
+        ParameterHandler parameterHandler = statementHandler.getParameterHandler();
+        if (parameterHandler instanceof DefaultParameterHandler || parameterHandler instanceof MybatisParameterHandler) {
+            return (MappedStatement) SystemMetaObject.forObject(parameterHandler).getValue("mappedStatement");
         }
+        return null;
+    }
 
-        if (configuration == null) {
+    /**
+     * 拼接sql
+     *
+     * @param statementHandler
+     * @param mappedStatement
+     * @return
+     */
+    private String buildSql(StatementHandler statementHandler, MappedStatement mappedStatement) {
+        BoundSql boundSql = statementHandler.getBoundSql();
+        if (mappedStatement == null) {
             return boundSql.getSql();
         }
 
-        return getSql(boundSql, configuration);
+        return getSql(boundSql, mappedStatement.getConfiguration());
     }
 
 
@@ -113,11 +190,19 @@ public class SqlStateInterceptor implements Interceptor {
         }
 
         MetaObject mo = configuration.newMetaObject(boundSql.getParameterObject());
+        // 按顺序将占位符替换为参数值，只扫描一遍sql
+        StringBuilder builder = new StringBuilder(sql.length() + parameterMappings.size() * 8);
+        int index = 0;
         for (ParameterMapping parameterMapping : parameterMappings) {
             if (parameterMapping.getMode() == ParameterMode.OUT) {
                 continue;
             }
 
+            int pos = sql.indexOf('?', index);
+            if (pos < 0) {
+                break;
+            }
+
             //参数值
             Object value;
             //获取参数名称
@@ -131,15 +216,17 @@ public class SqlStateInterceptor implements Interceptor {
             } else {
                 value = mo.getValue(propertyName);
             }
-            String param = Matcher.quoteReplacement(getParameter(value));
-            sql = sql.replaceFirst("\\?", param);
+            builder.append(sql, index, pos).append(getParameter(value));
+            index = pos + 1;
         }
-        sql += ";";
-        return sql;
+        builder.append(sql, index, sql.length()).append(';');
+        return builder.toString();
     }
 
     public String getParameter(Object parameter) {
-        if (parameter instanceof String) {
+        if (parameter == null) {
+            return "null";
+        } else if (parameter instanceof String) {
             return "'" + parameter + "'";
         } else if (parameter instanceof Date) {
             // 日期格式化
@@ -0,0 +1,129 @@
+package com.github.paicoding.forum.core.dal;
+
+import com.github.paicoding.forum.api.model.vo.statistics.dto.SqlStatDTO;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 按 mapper 方法统计sql的执行次数与耗时
+ * <p>
+ * - 耗时分布通过 micrometer 的 paicoding.sql 指标输出，tag statement 为 mapper 方法
+ * - 每个 mapper 方法一个 Timer，只输出几个固定的耗时区间，不开启 percentile histogram，避免每个 mapper 方法产生几十个 bucket
+ * - 进程内另外保留累计的次数、耗时、最大耗时与最近一次慢sql，用于后台查询最慢、最频繁的sql
+ *
+ * @author YiHui
+ * @date 2024/4/5
+ */
+public class SqlStatistics {
+    private static final String METRIC_NAME = "paicoding.sql";
+
+    /**
+     * 耗时区间的边界，200ms 与默认的慢sql阈值一致
+     */
+    private static final Duration[] SLO_BOUNDARIES = {Duration.ofMillis(10), Duration.ofMillis(50),
+            Duration.ofMillis(200), Duration.ofSeconds(1)};
+
+    private final Map<String, StatementStat> stats = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次sql执行
+     *
+     * @param statement mapper方法
+     * @param costNanos 耗时(ns)
+     * @param slow      是否为慢sql
+     * @return 当前sql的统计信息
+     */
+    public StatementStat record(String statement, long costNanos, boolean slow) {
+        StatementStat stat = stats.get(statement);
+        if (stat == null) {
+            stat = stats.computeIfAbsent(statement, StatementStat::new);
+        }
+        stat.record(costNanos, slow);
+        return stat;
+    }
+
+    /**
+     * 平均耗时最高的sql
+     *
+     * @param size
+     * @return
+     */
+    public List<SqlStatDTO> topSlow(int size) {
+        return top(size, Comparator.comparingDouble(SqlStatDTO::getAvgCost).reversed());
+    }
+
+    /**
+     * 执行次数最多的sql
+     *
+     * @param size
+     * @return
+     */
+    public List<SqlStatDTO> topFrequent(int size) {
+        return top(size, Comparator.comparingLong(SqlStatDTO::getCount).reversed());
+    }
+
+    private List<SqlStatDTO> top(int size, Comparator<SqlStatDTO> comparator) {
+        List<SqlStatDTO> list = new ArrayList<>(stats.size());
+        stats.values().forEach(stat -> list.add(stat.toDTO()));
+        return list.stream().sorted(comparator).limit(size).collect(Collectors.toList());
+    }
+
+    public static class StatementStat {
+        private final String statement;
+        private final Timer timer;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile String lastSlowSql;
+
+        private StatementStat(String statement) {
+            this.statement = statement;
+            this.timer = Timer.builder(METRIC_NAME)
+                    .description("sql执行耗时")
+                    .tag("statement", statement)
+                    .serviceLevelObjectives(SLO_BOUNDARIES)
+                    .register(Metrics.globalRegistry);
+        }
+
+        private void record(long costNanos, boolean slow) {
+            timer.record(costNanos, TimeUnit.NANOSECONDS);
+            count.increment();
+            totalNanos.add(costNanos);
+            if (slow) {
+                slowCount.increment();
+            }
+            long max = maxNanos.get();
+            while (costNanos > max && !maxNanos.compareAndSet(max, costNanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        public void setLastSlowSql(String sql) {
+            this.lastSlowSql = sql;
+        }
+
+        private SqlStatDTO toDTO() {
+            SqlStatDTO dto = new SqlStatDTO();
+            long cnt = count.sum();
+            dto.setStatement(statement);
+            dto.setCount(cnt);
+            dto.setAvgCost(cnt == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / cnt);
+            dto.setMaxCost(TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+            dto.setSlowCount(slowCount.sum());
+            dto.setLastSlowSql(lastSlowSql);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.paicoding.forum.core.dal;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+
+import java.util.Properties;
+
+/**
+ * 记录用户的写操作，配合 {@link ReplicaRouter} 实现读自己的写
+ *
+ * @author YiHui
+ * @date 2024/4/6
+ */
+@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class WriteStickyInterceptor implements Interceptor {
+    private final ReplicaRouter replicaRouter;
+
+    public WriteStickyInterceptor(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object rs = invocation.proceed();
+        replicaRouter.markWrite();
+        return rs;
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+}
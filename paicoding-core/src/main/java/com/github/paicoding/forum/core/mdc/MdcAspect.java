@@ -1,5 +1,6 @@
 package com.github.paicoding.forum.core.mdc;
 
+import com.github.paicoding.forum.core.util.MethodSpelEvaluator;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -8,16 +9,14 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.expression.BeanFactoryResolver;
-import org.springframework.core.DefaultParameterNameDiscoverer;
-import org.springframework.core.ParameterNameDiscoverer;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import java.lang.reflect.Method;
 
 /**
@@ -28,8 +27,13 @@ import java.lang.reflect.Method;
 @Aspect
 @Component
 public class MdcAspect implements ApplicationContextAware {
-    private ExpressionParser parser = new SpelExpressionParser();
-    private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    /**
+     * SpEL 编译模式: off 解释执行; immediate 首次执行后编译，编译后的执行异常直接抛出; mixed 编译后执行异常时回退为解释执行
+     */
+    @Value("${paicoding.spel.compiler-mode:off}")
+    private String compilerMode;
+
+    private MethodSpelEvaluator evaluator;
 
     @Pointcut("@annotation(MdcDot) || @within(MdcDot)")
     public void getLogAnnotation() {
@@ -73,15 +77,7 @@ public class MdcAspect implements ApplicationContextAware {
             return "";
         }
 
-        StandardEvaluationContext context = new StandardEvaluationContext();
-
-        context.setBeanResolver(new BeanFactoryResolver(applicationContext));
-        String[] params = parameterNameDiscoverer.getParameterNames(((MethodSignature) joinPoint.getSignature()).getMethod());
-        Object[] args = joinPoint.getArgs();
-        for (int i = 0; i < args.length; i++) {
-            context.setVariable(params[i], args[i]);
-        }
-        return parser.parseExpression(key).getValue(context, String.class);
+        return evaluator.getValue(((MethodSignature) joinPoint.getSignature()).getMethod(), key, joinPoint.getArgs(), String.class);
     }
 
     private ApplicationContext applicationContext;
@@ -90,4 +86,9 @@ public class MdcAspect implements ApplicationContextAware {
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
     }
+
+    @PostConstruct
+    public void init() {
+        evaluator = new MethodSpelEvaluator(new BeanFactoryResolver(applicationContext), SpelCompilerMode.valueOf(compilerMode.toUpperCase()), applicationContext.getClassLoader());
+    }
 }
@@ -0,0 +1,98 @@
+package com.github.paicoding.forum.core.senstive;
+
+import com.github.paicoding.forum.core.cache.RedisClient;
+import com.github.paicoding.forum.core.util.CounterBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 敏感词命中计数的写缓冲
+ * <p>
+ * - 命中时只在本地累加，ConcurrentHashMap 按桶加锁，不同敏感词之间的累加互不竞争
+ * - 定时通过一次 pipeline 批量 HINCRBY 写入redis，计数的延迟不超过刷新周期；应用关闭时强制刷新一次
+ * - 写redis失败时增量回填到缓冲中，等待下次刷新；缓冲的实现见 {@link CounterBuffer}
+ *
+ * @author YiHui
+ * @date 2024/4/3
+ */
+@Component
+public class SensitiveHitCounter {
+    private static final String METRIC_NAME = "paicoding.sensitive.hit.buffer";
+
+    /**
+     * 敏感词命中计数统计
+     */
+    public static final String SENSITIVE_WORD_CNT_PREFIX = "sensitive_word";
+
+    /**
+     * 缓冲中允许的敏感词数量上限；连续数字这类命中内容不可枚举，超出上限后新的词直接丢弃
+     */
+    @Value("${paicoding.sensitive.hit-max-pending:10000}")
+    private int maxPending;
+
+    /**
+     * 敏感词 -> 尚未写入redis的命中次数
+     */
+    private CounterBuffer<String> buffer;
+
+    @PostConstruct
+    public void init() {
+        buffer = new CounterBuffer<>(METRIC_NAME, maxPending, this::save);
+    }
+
+    /**
+     * 命中的敏感词计数+1
+     *
+     * @param words
+     */
+    public void incr(List<String> words) {
+        words.forEach(buffer::incr);
+    }
+
+    /**
+     * 返回已命中的敏感词，包含本节点尚未刷新到redis的部分
+     *
+     * @return key: 敏感词， value：计数
+     */
+    public Map<String, Integer> getHitWords() {
+        Map<String, Integer> ans = new HashMap<>(RedisClient.hGetAll(SENSITIVE_WORD_CNT_PREFIX, Integer.class));
+        buffer.forEach((word, cnt) -> ans.merge(word, cnt, Integer::sum));
+        return ans;
+    }
+
+    /**
+     * 移除敏感词的命中计数
+     *
+     * @param word
+     */
+    public void remove(String word) {
+        buffer.remove(word);
+        RedisClient.hDel(SENSITIVE_WORD_CNT_PREFIX, word);
+    }
+
+    /**
+     * 定时将命中计数刷新到redis
+     */
+    @Scheduled(fixedDelayString = "${paicoding.sensitive.hit-flush-interval:5000}")
+    public void autoFlush() {
+        buffer.flush();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        buffer.flush();
+    }
+
+    private void save(Map<String, Integer> counts) {
+        RedisClient.PipelineAction action = RedisClient.pipelineAction();
+        counts.forEach((word, cnt) -> action.add(SENSITIVE_WORD_CNT_PREFIX, word, (connection, k, v) -> connection.hIncrBy(k, v, cnt)));
+        action.execute();
+    }
+}
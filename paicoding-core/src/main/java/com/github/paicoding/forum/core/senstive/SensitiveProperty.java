@@ -22,6 +22,16 @@ public class SensitiveProperty {
      */
     private Boolean enable;
 
+    /**
+     * true 表示邮箱视为敏感信息，与 sensitive-word 的默认行为一致
+     */
+    private Boolean email = true;
+
+    /**
+     * true 表示网址(域名)视为敏感信息，与 sensitive-word 的默认行为一致
+     */
+    private Boolean url = true;
+
     /**
      * 自定义的敏感词
      */
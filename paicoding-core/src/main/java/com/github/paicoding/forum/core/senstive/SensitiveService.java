@@ -1,12 +1,12 @@
 package com.github.paicoding.forum.core.senstive;
 
-import com.github.houbb.sensitive.word.api.IWordAllow;
-import com.github.houbb.sensitive.word.api.IWordDeny;
-import com.github.houbb.sensitive.word.bs.SensitiveWordBs;
 import com.github.houbb.sensitive.word.support.allow.WordAllowSystem;
 import com.github.houbb.sensitive.word.support.deny.WordDenySystem;
 import com.github.paicoding.forum.core.autoconf.DynamicConfigContainer;
-import com.github.paicoding.forum.core.cache.RedisClient;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.BooleanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,9 +17,14 @@ import javax.annotation.PostConstruct;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 敏感词服务类
+ * <p>
+ * - 词库编译为 Aho-Corasick 自动机，配置刷新时构建新的自动机后整体替换，读写之间无需加锁
+ * - 邮箱、网址默认同样视为敏感信息，可通过 paicoding.sensitive.email/url 关闭
+ * - 查询结果的敏感词替换是高频操作，替换结果按原文缓存，同样的内容不重复扫描；自动机替换后缓存随之失效
  *
  * @author YiHui
  * @date 2023/8/9
@@ -28,34 +33,48 @@ import java.util.Map;
 @Service
 public class SensitiveService {
     /**
-     * 敏感词命中计数统计
+     * 长度低于该值的文本直接扫描，自动机的匹配成本不比缓存查询高
      */
-    private static final String SENSITIVE_WORD_CNT_PREFIX = "sensitive_word";
-    private volatile SensitiveWordBs sensitiveWordBs;
+    private static final int REPLACE_CACHE_MIN_LEN = 32;
+
+    private volatile SensitiveWordMatcher matcher;
+    /**
+     * 敏感词替换结果缓存，key为原文；value 中记录了生成该结果的自动机，自动机被替换后的结果视为失效
+     */
+    private final Cache<String, ReplaceResult> replaceCache = CacheBuilder.newBuilder()
+            .maximumWeight(8 * 1024 * 1024)
+            .weigher((String key, ReplaceResult val) -> key.length() + (val.text == key ? 0 : val.text.length()))
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .recordStats()
+            .build();
     @Autowired
     private SensitiveProperty sensitiveConfig;
     @Autowired
     private DynamicConfigContainer dynamicConfigContainer;
+    @Autowired
+    private SensitiveHitCounter sensitiveHitCounter;
 
     @PostConstruct
-    public void refresh() {
+    public void init() {
+        GuavaCacheMetrics.monitor(Metrics.globalRegistry, replaceCache, "sensitiveReplace");
         dynamicConfigContainer.registerRefreshCallback(sensitiveConfig, this::refresh);
-        IWordDeny deny = () -> {
-            List<String> sub = WordDenySystem.getInstance().deny();
-            sub.addAll(sensitiveConfig.getDeny());
-            return sub;
-        };
-
-        IWordAllow allow = () -> {
-            List<String> sub = WordAllowSystem.getInstance().allow();
-            sub.addAll(sensitiveConfig.getAllow());
-            return sub;
-        };
-        sensitiveWordBs = SensitiveWordBs.newInstance()
-                .wordDeny(deny)
-                .wordAllow(allow)
-                .init();
-        log.info("敏感词初始化完成！");
+        refresh();
+    }
+
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        List<String> deny = WordDenySystem.getInstance().deny();
+        if (sensitiveConfig.getDeny() != null) {
+            deny.addAll(sensitiveConfig.getDeny());
+        }
+
+        List<String> allow = WordAllowSystem.getInstance().allow();
+        if (sensitiveConfig.getAllow() != null) {
+            allow.addAll(sensitiveConfig.getAllow());
+        }
+        matcher = SensitiveWordMatcher.build(deny, allow, !BooleanUtils.isFalse(sensitiveConfig.getEmail()), !BooleanUtils.isFalse(sensitiveConfig.getUrl()));
+        replaceCache.invalidateAll();
+        log.info("敏感词初始化完成！词数: {}, 耗时: {}ms", matcher.size(), System.currentTimeMillis() - start);
     }
 
     /**
@@ -69,15 +88,13 @@ public class SensitiveService {
             return Collections.emptyList();
         }
 
-        List<String> ans = sensitiveWordBs.findAll(txt);
+        List<String> ans = matcher.findAll(txt);
         if (CollectionUtils.isEmpty(ans)) {
             return ans;
         }
 
-        // 敏感词命中次数+1
-        RedisClient.PipelineAction action = RedisClient.pipelineAction();
-        ans.forEach(key -> action.add(SENSITIVE_WORD_CNT_PREFIX, key, (connection, k, v) -> connection.hIncrBy(k, v, 1)));
-        action.execute();
+        // 敏感词命中次数+1，本地累加后定时批量写入redis
+        sensitiveHitCounter.incr(ans);
         return ans;
     }
 
@@ -88,7 +105,7 @@ public class SensitiveService {
      * @return key: 敏感词， value：计数
      */
     public Map<String, Integer> getHitSensitiveWords() {
-        return RedisClient.hGetAll(SENSITIVE_WORD_CNT_PREFIX, Integer.class);
+        return sensitiveHitCounter.getHitWords();
     }
 
     /**
@@ -97,7 +114,7 @@ public class SensitiveService {
      * @param word
      */
     public void removeSensitiveWord(String word) {
-        RedisClient.hDel(SENSITIVE_WORD_CNT_PREFIX, word);
+        sensitiveHitCounter.remove(word);
     }
 
     /**
@@ -107,10 +124,22 @@ public class SensitiveService {
      * @return
      */
     public String replace(String txt) {
-        if (BooleanUtils.isTrue(sensitiveConfig.getEnable())) {
-            return sensitiveWordBs.replace(txt);
+        if (!BooleanUtils.isTrue(sensitiveConfig.getEnable()) || txt == null) {
+            return txt;
+        }
+
+        SensitiveWordMatcher current = matcher;
+        if (txt.length() < REPLACE_CACHE_MIN_LEN) {
+            return current.replace(txt);
+        }
+
+        ReplaceResult res = replaceCache.getIfPresent(txt);
+        if (res == null || res.matcher != current) {
+            // 未命中敏感词时返回的就是原文对象，不额外占用缓存空间
+            res = new ReplaceResult(current, current.replace(txt));
+            replaceCache.put(txt, res);
         }
-        return txt;
+        return res.text;
     }
 
     /**
@@ -120,6 +149,16 @@ public class SensitiveService {
      * @return 命中的敏感词
      */
     public List<String> findAll(String txt) {
-        return sensitiveWordBs.findAll(txt);
+        return matcher.findAll(txt);
+    }
+
+    private static class ReplaceResult {
+        private final SensitiveWordMatcher matcher;
+        private final String text;
+
+        private ReplaceResult(SensitiveWordMatcher matcher, String text) {
+            this.matcher = matcher;
+            this.text = text;
+        }
     }
 }
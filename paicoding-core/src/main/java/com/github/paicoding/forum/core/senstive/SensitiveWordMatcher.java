@@ -0,0 +1,418 @@
+package com.github.paicoding.forum.core.senstive;
+
+import com.github.houbb.sensitive.word.api.IWordContext;
+import com.github.houbb.sensitive.word.api.IWordFormat;
+import com.github.houbb.sensitive.word.bs.SensitiveWordContext;
+import com.github.houbb.sensitive.word.support.format.WordFormats;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 基于 Aho-Corasick 自动机的敏感词匹配器
+ * <p>
+ * - 构建完成后只读，可在多线程间共享；词库变更时重新构建一个新的实例替换即可
+ * - 字符归一化与 sensitive-word 的默认配置保持一致：忽略大小写、全半角、繁简体、英文/数字样式，归一化前后字符一一对应，命中位置可直接映射回原文
+ * - 同一位置有多个敏感词时取最长的一个，命中的区间之间不重叠；连续8位及以上的数字也视为敏感信息
+ * - 邮箱、网址与 sensitive-word 的默认行为一致，同样视为敏感信息，通过正则单独匹配；文本中不包含 @ / . 时直接跳过
+ *
+ * @author YiHui
+ * @date 2024/4/2
+ */
+public class SensitiveWordMatcher {
+    private static final char REPLACE_CHAR = '*';
+    /**
+     * 连续数字的长度达到该值时视为敏感信息，与 sensitive-word 的默认值保持一致
+     */
+    private static final int NUM_CHECK_LEN = 8;
+    private static final int ROOT = 0;
+    /**
+     * 邮箱、网址(域名)的匹配规则，与 sensitive-word 中的校验规则保持一致
+     */
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("[a-zA-Z0-9_-]+@[a-zA-Z0-9_-]+(\\.[a-zA-Z0-9_-]+)+");
+    private static final Pattern URL_PATTERN = Pattern.compile("(?<![a-zA-Z0-9.@-])([a-zA-Z0-9]([a-zA-Z0-9-]{0,61}[a-zA-Z0-9])?\\.)+[a-zA-Z]{2,6}(?![a-zA-Z0-9@-])");
+
+    /**
+     * 字符归一化映射表，下标为原字符
+     */
+    private static volatile char[] formatTable;
+
+    /**
+     * 根节点的跳转表，直接按字符寻址
+     */
+    private final int[] rootNext;
+    /**
+     * 非根节点的子节点，keys 有序，通过二分查找定位
+     */
+    private final char[][] childKeys;
+    private final int[][] childNodes;
+    private final int[] fail;
+    /**
+     * 以当前节点结尾的最长敏感词长度，0 表示当前节点及其后缀都不是敏感词
+     */
+    private final int[] matchLen;
+    /**
+     * 后缀链上最近的一个敏感词节点，用于枚举以当前位置结尾的所有敏感词
+     */
+    private final int[] outputLink;
+    private final int wordCount;
+    private final boolean emailCheck;
+    private final boolean urlCheck;
+
+    private SensitiveWordMatcher(Trie trie, boolean emailCheck, boolean urlCheck) {
+        int size = trie.size;
+        this.rootNext = new int[Character.MAX_VALUE + 1];
+        this.childKeys = new char[size][];
+        this.childNodes = new int[size][];
+        this.fail = new int[size];
+        this.matchLen = new int[size];
+        this.outputLink = new int[size];
+        this.wordCount = trie.wordCount;
+        this.emailCheck = emailCheck;
+        this.urlCheck = urlCheck;
+
+        for (int i = 0; i < size; i++) {
+            char[] keys = trie.keys.get(i);
+            int[] nodes = trie.nodes.get(i);
+            int len = trie.childCnt.get(i);
+            childKeys[i] = Arrays.copyOf(keys, len);
+            childNodes[i] = Arrays.copyOf(nodes, len);
+            matchLen[i] = trie.wordLen.get(i);
+        }
+        for (int i = 0; i < childKeys[ROOT].length; i++) {
+            rootNext[childKeys[ROOT][i]] = childNodes[ROOT][i];
+        }
+        buildFailLinks();
+    }
+
+    /**
+     * 构建匹配器，邮箱、网址同样视为敏感信息
+     *
+     * @param deny  敏感词
+     * @param allow 非敏感词，归一化之后与敏感词相同的词会被剔除
+     * @return
+     */
+    public static SensitiveWordMatcher build(Collection<String> deny, Collection<String> allow) {
+        return build(deny, allow, true, true);
+    }
+
+    /**
+     * 构建匹配器
+     *
+     * @param deny       敏感词
+     * @param allow      非敏感词，归一化之后与敏感词相同的词会被剔除
+     * @param emailCheck true 表示邮箱视为敏感信息
+     * @param urlCheck   true 表示网址视为敏感信息
+     * @return
+     */
+    public static SensitiveWordMatcher build(Collection<String> deny, Collection<String> allow, boolean emailCheck, boolean urlCheck) {
+        Set<String> allowWords = new HashSet<>();
+        if (allow != null) {
+            allow.forEach(word -> allowWords.add(format(word)));
+        }
+
+        Trie trie = new Trie();
+        Set<String> added = new HashSet<>();
+        if (deny != null) {
+            for (String word : deny) {
+                String key = format(word);
+                if (key == null || key.isEmpty() || allowWords.contains(key) || !added.add(key)) {
+                    continue;
+                }
+                trie.add(key);
+            }
+        }
+        return new SensitiveWordMatcher(trie, emailCheck, urlCheck);
+    }
+
+    /**
+     * @return 自动机中的敏感词数量
+     */
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * 查询文本中所有命中的敏感词
+     *
+     * @param txt 校验文本
+     * @return 命中的敏感词，为原文中的片段，按出现顺序返回
+     */
+    public List<String> findAll(String txt) {
+        if (txt == null || txt.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int[] hits = match(txt);
+        if (hits == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> ans = new ArrayList<>();
+        for (int i = 0; i < hits.length; i++) {
+            if (hits[i] > 0) {
+                ans.add(txt.substring(i, i + hits[i]));
+                i += hits[i] - 1;
+            }
+        }
+        return ans;
+    }
+
+    /**
+     * 判断是否包含敏感词
+     *
+     * @param txt 校验文本
+     * @return true 表示包含敏感词
+     */
+    public boolean contains(String txt) {
+        return txt != null && !txt.isEmpty() && match(txt) != null;
+    }
+
+    /**
+     * 将命中的敏感词替换为 *
+     *
+     * @param txt 原文
+     * @return 不包含敏感词时，直接返回原文对象
+     */
+    public String replace(String txt) {
+        if (txt == null || txt.isEmpty()) {
+            return txt;
+        }
+
+        int[] hits = match(txt);
+        if (hits == null) {
+            return txt;
+        }
+
+        char[] chars = txt.toCharArray();
+        for (int i = 0; i < hits.length; i++) {
+            if (hits[i] > 0) {
+                Arrays.fill(chars, i, i + hits[i], REPLACE_CHAR);
+                i += hits[i] - 1;
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 扫描一遍文本，记录每个起始位置命中的最长敏感词/连续数字/邮箱/网址长度
+     *
+     * @param txt
+     * @return 未命中时返回null，避免无谓的数组分配
+     */
+    private int[] match(String txt) {
+        char[] table = formatTable();
+        int len = txt.length();
+        int[] hits = null;
+        int state = ROOT;
+        int numStart = -1;
+        for (int i = 0; i < len; i++) {
+            char c = table[txt.charAt(i)];
+
+            // 连续数字
+            if (c >= '0' && c <= '9') {
+                if (numStart < 0) {
+                    numStart = i;
+                }
+            } else {
+                hits = markNum(hits, len, numStart, i);
+                numStart = -1;
+            }
+
+            state = next(state, c);
+            for (int node = matchLen[state] > 0 ? state : outputLink[state]; node != ROOT; node = outputLink[node]) {
+                int wordLen = matchLen[node];
+                int start = i - wordLen + 1;
+                if (hits == null) {
+                    hits = new int[len];
+                }
+                if (hits[start] < wordLen) {
+                    hits[start] = wordLen;
+                }
+            }
+        }
+        hits = markNum(hits, len, numStart, len);
+        if (emailCheck && txt.indexOf('@') >= 0) {
+            hits = markPattern(hits, txt, EMAIL_PATTERN);
+        }
+        if (urlCheck && txt.indexOf('.') >= 0) {
+            hits = markPattern(hits, txt, URL_PATTERN);
+        }
+        return hits;
+    }
+
+    private static int[] markPattern(int[] hits, String txt, Pattern pattern) {
+        Matcher matcher = pattern.matcher(txt);
+        while (matcher.find()) {
+            int start = matcher.start();
+            int hitLen = matcher.end() - start;
+            if (hits == null) {
+                hits = new int[txt.length()];
+            }
+            if (hits[start] < hitLen) {
+                hits[start] = hitLen;
+            }
+        }
+        return hits;
+    }
+
+    private static int[] markNum(int[] hits, int len, int numStart, int numEnd) {
+        if (numStart < 0 || numEnd - numStart < NUM_CHECK_LEN) {
+            return hits;
+        }
+        if (hits == null) {
+            hits = new int[len];
+        }
+        if (hits[numStart] < numEnd - numStart) {
+            hits[numStart] = numEnd - numStart;
+        }
+        return hits;
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            if (state == ROOT) {
+                return rootNext[c];
+            }
+            int index = Arrays.binarySearch(childKeys[state], c);
+            if (index >= 0) {
+                return childNodes[state][index];
+            }
+            state = fail[state];
+        }
+    }
+
+    private void buildFailLinks() {
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : childNodes[ROOT]) {
+            fail[child] = ROOT;
+            outputLink[child] = ROOT;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            char[] keys = childKeys[node];
+            int[] nodes = childNodes[node];
+            for (int i = 0; i < keys.length; i++) {
+                int child = nodes[i];
+                int f = next(fail[node], keys[i]);
+                fail[child] = f;
+                outputLink[child] = matchLen[f] > 0 ? f : outputLink[f];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * 字符归一化，与 sensitive-word 默认开启的格式化策略保持一致
+     *
+     * @param word
+     * @return
+     */
+    public static String format(String word) {
+        if (word == null) {
+            return null;
+        }
+        char[] table = formatTable();
+        char[] chars = word.trim().toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = table[chars[i]];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 繁简体的转换成本较高，因此对所有字符预先计算一次归一化结果，匹配时直接查表
+     *
+     * @return
+     */
+    private static char[] formatTable() {
+        char[] table = formatTable;
+        if (table == null) {
+            synchronized (SensitiveWordMatcher.class) {
+                table = formatTable;
+                if (table == null) {
+                    IWordContext context = SensitiveWordContext.newInstance();
+                    IWordFormat wordFormat = WordFormats.chains(WordFormats.ignoreCase(), WordFormats.ignoreWidth(),
+                            WordFormats.ignoreNumStyle(), WordFormats.ignoreChineseStyle(), WordFormats.ignoreEnglishStyle());
+                    table = new char[Character.MAX_VALUE + 1];
+                    for (int i = 0; i <= Character.MAX_VALUE; i++) {
+                        table[i] = wordFormat.format((char) i, context);
+                    }
+                    formatTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 构建阶段使用的字典树，子节点数组按字符有序插入
+     */
+    private static class Trie {
+        private final List<char[]> keys = new ArrayList<>();
+        private final List<int[]> nodes = new ArrayList<>();
+        private final List<Integer> childCnt = new ArrayList<>();
+        private final List<Integer> wordLen = new ArrayList<>();
+        private int size;
+        private int wordCount;
+
+        private Trie() {
+            newNode();
+        }
+
+        private int newNode() {
+            keys.add(new char[2]);
+            nodes.add(new int[2]);
+            childCnt.add(0);
+            wordLen.add(0);
+            return size++;
+        }
+
+        private void add(String word) {
+            int node = ROOT;
+            for (int i = 0; i < word.length(); i++) {
+                node = child(node, word.charAt(i));
+            }
+            if (wordLen.get(node) == 0) {
+                wordLen.set(node, word.length());
+                wordCount++;
+            }
+        }
+
+        private int child(int node, char c) {
+            int cnt = childCnt.get(node);
+            char[] ks = keys.get(node);
+            int index = Arrays.binarySearch(ks, 0, cnt, c);
+            if (index >= 0) {
+                return nodes.get(node)[index];
+            }
+
+            int child = newNode();
+            int[] ns = nodes.get(node);
+            if (cnt == ks.length) {
+                ks = Arrays.copyOf(ks, cnt * 2);
+                ns = Arrays.copyOf(ns, cnt * 2);
+                keys.set(node, ks);
+                nodes.set(node, ns);
+            }
+            int pos = -(index + 1);
+            System.arraycopy(ks, pos, ks, pos + 1, cnt - pos);
+            System.arraycopy(ns, pos, ns, pos + 1, cnt - pos);
+            ks[pos] = c;
+            ns[pos] = child;
+            childCnt.set(node, cnt + 1);
+            return child;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.paicoding.forum.core.senstive.ibatis;
+
+import com.github.paicoding.forum.core.senstive.ano.SensitiveField;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 结果对象的敏感词替换执行计划
+ * <p>
+ * 首次遇到某个类时，解析 @SensitiveField 并生成基于 MethodHandle 的读写器，之后按类缓存复用，替换时不再走反射与 MetaObject
+ *
+ * @author YiHui
+ * @date 2024/4/4
+ */
+@Slf4j
+public class SensitiveAccessorPlan {
+    /**
+     * 不包含敏感词字段的类共用的空计划
+     */
+    public static final SensitiveAccessorPlan EMPTY = new SensitiveAccessorPlan(Collections.emptyList());
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final List<FieldAccessor> accessors;
+
+    private SensitiveAccessorPlan(List<FieldAccessor> accessors) {
+        this.accessors = accessors;
+    }
+
+    public boolean isEmpty() {
+        return accessors.isEmpty();
+    }
+
+    public List<FieldAccessor> getAccessors() {
+        return accessors;
+    }
+
+    /**
+     * 解析类中标注了 @SensitiveField 的成员（包含父类），生成执行计划
+     *
+     * @param clazz
+     * @return 不包含敏感词字段时，返回 {@link #EMPTY}
+     */
+    public static SensitiveAccessorPlan build(Class<?> clazz) {
+        if (clazz.isPrimitive() || clazz.getName().startsWith("java.")) {
+            return EMPTY;
+        }
+
+        List<FieldAccessor> accessors = new ArrayList<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Class<?> tmp = clazz; tmp != null && tmp != Object.class; tmp = tmp.getSuperclass()) {
+            for (Field field : tmp.getDeclaredFields()) {
+                SensitiveField sensitiveField = field.getAnnotation(SensitiveField.class);
+                if (sensitiveField == null) {
+                    continue;
+                }
+
+                Field bindField = StringUtils.isBlank(sensitiveField.bind()) ? field : findField(clazz, sensitiveField.bind());
+                if (bindField == null || Modifier.isFinal(field.getModifiers())) {
+                    log.warn("敏感词字段无法读写，忽略! class: {}, field: {}, bind: {}", clazz.getName(), field.getName(), sensitiveField.bind());
+                    continue;
+                }
+
+                try {
+                    bindField.setAccessible(true);
+                    field.setAccessible(true);
+                    MethodHandle getter = lookup.unreflectGetter(bindField).asType(GETTER_TYPE);
+                    MethodHandle setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+                    accessors.add(new FieldAccessor(getter, setter, bindField == field));
+                } catch (IllegalAccessException e) {
+                    log.warn("敏感词字段读写器生成失败，忽略! class: {}, field: {}", clazz.getName(), field.getName(), e);
+                }
+            }
+        }
+        return accessors.isEmpty() ? EMPTY : new SensitiveAccessorPlan(accessors);
+    }
+
+    private static Field findField(Class<?> clazz, String name) {
+        for (Class<?> tmp = clazz; tmp != null && tmp != Object.class; tmp = tmp.getSuperclass()) {
+            for (Field field : tmp.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    public static class FieldAccessor {
+        /**
+         * 读取绑定的字段
+         */
+        private final MethodHandle getter;
+        /**
+         * 写入标注的字段
+         */
+        private final MethodHandle setter;
+        /**
+         * true 表示读写的是同一个字段
+         */
+        private final boolean selfBind;
+
+        private FieldAccessor(MethodHandle getter, MethodHandle setter, boolean selfBind) {
+            this.getter = getter;
+            this.setter = setter;
+            this.selfBind = selfBind;
+        }
+
+        public boolean isSelfBind() {
+            return selfBind;
+        }
+
+        public Object get(Object target) throws Throwable {
+            return (Object) getter.invokeExact(target);
+        }
+
+        public void set(Object target, Object value) throws Throwable {
+            setter.invokeExact(target, value);
+        }
+    }
+}
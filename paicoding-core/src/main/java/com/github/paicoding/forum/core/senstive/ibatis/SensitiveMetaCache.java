@@ -1,38 +1,32 @@
 package com.github.paicoding.forum.core.senstive.ibatis;
 
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
 
 /**
- * 敏感词缓存
+ * 敏感词缓存，按类缓存敏感词替换的执行计划
  *
  * @author YiHui
  * @date 2023/8/9
  */
 public class SensitiveMetaCache {
-    private static ConcurrentHashMap<String, SensitiveObjectMeta> CACHE = new ConcurrentHashMap<>();
-
-    public static SensitiveObjectMeta get(String key) {
-        return CACHE.get(key);
-    }
-
-    public static void put(String key, SensitiveObjectMeta meta) {
-        CACHE.put(key, meta);
-    }
-
-    public static void remove(String key) {
-        CACHE.remove(key);
-    }
-
-    public static boolean contains(String key) {
-        return CACHE.containsKey(key);
-    }
-
-    public static SensitiveObjectMeta putIfAbsent(String key, SensitiveObjectMeta meta) {
-        return CACHE.putIfAbsent(key, meta);
+    private static final ConcurrentHashMap<Class<?>, SensitiveAccessorPlan> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 获取类的执行计划，不包含敏感词字段的类返回 {@link SensitiveAccessorPlan#EMPTY}
+     *
+     * @param clazz
+     * @return
+     */
+    public static SensitiveAccessorPlan get(Class<?> clazz) {
+        // 命中时只有一次无锁的查询；jdk8 的 computeIfAbsent 即便key存在也会加锁
+        SensitiveAccessorPlan plan = CACHE.get(clazz);
+        if (plan == null) {
+            plan = CACHE.computeIfAbsent(clazz, SensitiveAccessorPlan::build);
+        }
+        return plan;
     }
 
-    public static SensitiveObjectMeta computeIfAbsent(String key, Function<String, SensitiveObjectMeta> function) {
-        return CACHE.computeIfAbsent(key, function);
+    public static void remove(Class<?> clazz) {
+        CACHE.remove(clazz);
     }
 }
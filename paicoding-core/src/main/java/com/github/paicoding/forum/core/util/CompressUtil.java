@@ -1,6 +1,7 @@
 package com.github.paicoding.forum.core.util;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * 压缩工具类
@@ -12,7 +13,24 @@ public class CompressUtil {
     /**
      * 进制转换数组
      */
-    private static char[] BINARY_ARRAY = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final char[] BINARY_ARRAY = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    /**
+     * 字符 -> 在进制转换数组中的下标，不在数组中的字符为 -1
+     */
+    private static final byte[] BINARY_INDEX = new byte[128];
+
+    /**
+     * long 最长的转换结果为二进制的 63 位
+     */
+    private static final int MAX_LEN = 63;
+
+    static {
+        Arrays.fill(BINARY_INDEX, (byte) -1);
+        for (int i = 0; i < BINARY_ARRAY.length; i++) {
+            BINARY_INDEX[BINARY_ARRAY[i]] = (byte) i;
+        }
+    }
 
     public static String int2str(long num) {
         return int2str(num, BINARY_ARRAY.length);
@@ -21,21 +39,95 @@ public class CompressUtil {
     /**
      * 整数的进制转换
      *
-     * @param num  数字
+     * @param num  数字，小于等于0时返回空字符串
      * @param size 进制长度
      * @return 返回String格式的数据
      */
     public static String int2str(long num, int size) {
-        if (size > BINARY_ARRAY.length) {
-            size = BINARY_ARRAY.length;
+        char[] buf = new char[MAX_LEN];
+        int pos = fill(num, checkSize(size), buf);
+        return new String(buf, pos, MAX_LEN - pos);
+    }
+
+    /**
+     * 批量进制转换，所有数字共用一个字符缓冲
+     *
+     * @param nums 数字
+     * @return 与 {@link #int2str(long)} 的结果一致
+     */
+    public static String[] int2str(long[] nums) {
+        return int2str(nums, BINARY_ARRAY.length);
+    }
+
+    public static String[] int2str(long[] nums, int size) {
+        size = checkSize(size);
+        char[] buf = new char[MAX_LEN];
+        String[] ans = new String[nums.length];
+        for (int i = 0; i < nums.length; i++) {
+            int pos = fill(nums[i], size, buf);
+            ans[i] = new String(buf, pos, MAX_LEN - pos);
         }
+        return ans;
+    }
+
+    private static int checkSize(int size) {
+        if (size < 2) {
+            throw new IllegalArgumentException("进制长度至少为2: " + size);
+        }
+        return Math.min(size, BINARY_ARRAY.length);
+    }
 
-        StringBuilder builder = new StringBuilder();
+    /**
+     * 从缓冲的末尾往前写入转换后的字符
+     *
+     * @return 写入的起始位置
+     */
+    private static int fill(long num, int size, char[] buf) {
+        int pos = MAX_LEN;
         while (num > 0) {
-            builder.insert(0, BINARY_ARRAY[(int) (num % size)]);
+            buf[--pos] = BINARY_ARRAY[(int) (num % size)];
             num /= size;
         }
-        return builder.toString();
+        return pos;
+    }
+
+    public static long str2int(String str) {
+        return str2int(str, BINARY_ARRAY.length);
+    }
+
+    /**
+     * {@link #int2str(long, int)} 的逆操作
+     *
+     * @param str  进制转换后的字符串，空字符串返回0
+     * @param size 进制长度
+     * @return
+     */
+    public static long str2int(String str, int size) {
+        size = checkSize(size);
+        long ans = 0;
+        for (int i = 0, len = str.length(); i < len; i++) {
+            char c = str.charAt(i);
+            int index = c < BINARY_INDEX.length ? BINARY_INDEX[c] : -1;
+            if (index < 0 || index >= size) {
+                throw new IllegalArgumentException("非法的" + size + "进制字符串: " + str);
+            }
+            ans = Math.addExact(Math.multiplyExact(ans, size), index);
+        }
+        return ans;
+    }
+
+    /**
+     * 批量逆转换
+     *
+     * @param strs
+     * @return
+     */
+    public static long[] str2int(String[] strs) {
+        long[] ans = new long[strs.length];
+        for (int i = 0; i < strs.length; i++) {
+            ans[i] = str2int(strs[i]);
+        }
+        return ans;
     }
 
     private static long zigzag(long n) {
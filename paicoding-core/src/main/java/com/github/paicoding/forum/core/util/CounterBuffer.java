@@ -0,0 +1,117 @@
+package com.github.paicoding.forum.core.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 按key累加的计数写缓冲
+ * <p>
+ * - 业务线程只在本地累加，ConcurrentHashMap 按桶加锁，不同key之间的累加互不竞争
+ * - 由使用方定时调用 {@link #flush()}，将周期内的增量一次性交给 flusher 批量写入；应用关闭时也应刷新一次
+ * - flusher 抛出异常时，增量回填到缓冲中，等待下次刷新
+ * - 待写入的key数量有上限，超出时丢弃新key的计数；积压数、丢弃次数、每次刷新的key数通过 actuator 的 metrics 查看
+ *
+ * @author YiHui
+ * @date 2024/3/23
+ */
+@Slf4j
+public class CounterBuffer<K> {
+    /**
+     * key -> 尚未写入的增量
+     */
+    private final Map<K, Integer> pending = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    private final int maxPending;
+
+    private final Consumer<Map<K, Integer>> flusher;
+
+    private final Counter dropped;
+
+    private final DistributionSummary flushSize;
+
+    /**
+     * @param name       指标名前缀，生成 name.pending、name.dropped、name.flush.size 三个指标
+     * @param maxPending 待写入的key数量上限
+     * @param flusher    批量写入增量，异常时本次的增量回填到缓冲中
+     */
+    public CounterBuffer(String name, int maxPending, Consumer<Map<K, Integer>> flusher) {
+        this.name = name;
+        this.maxPending = maxPending;
+        this.flusher = flusher;
+        Metrics.gauge(name + ".pending", pending, Map::size);
+        dropped = Metrics.counter(name + ".dropped");
+        flushSize = DistributionSummary.builder(name + ".flush.size")
+                .description("每次刷新写入的key数")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 计数+1
+     *
+     * @param key
+     */
+    public void incr(K key) {
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            dropped.increment();
+            return;
+        }
+        pending.merge(key, 1, Integer::sum);
+    }
+
+    /**
+     * 丢弃key尚未写入的增量
+     *
+     * @param key
+     */
+    public void remove(K key) {
+        pending.remove(key);
+    }
+
+    /**
+     * 遍历尚未写入的增量
+     *
+     * @param action
+     */
+    public void forEach(BiConsumer<K, Integer> action) {
+        pending.forEach(action);
+    }
+
+    /**
+     * 将缓冲中的增量交给 flusher 批量写入
+     */
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // 逐个key原子的移除，保证与并发的累加不会丢失计数
+        Map<K, Integer> counts = new HashMap<>(pending.size());
+        for (K key : pending.keySet()) {
+            Integer cnt = pending.remove(key);
+            if (cnt != null) {
+                counts.put(key, cnt);
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        try {
+            flusher.accept(counts);
+            flushSize.record(counts.size());
+        } catch (Exception e) {
+            log.warn("{} 计数写入失败，等待下次刷新! size: {}", name, counts.size(), e);
+            counts.forEach((key, cnt) -> pending.merge(key, cnt, Integer::sum));
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package com.github.paicoding.forum.core.util;
 
-import com.github.hui.quick.plugin.base.file.FileWriteUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.paicoding.forum.core.region.IpRegionInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.lionsoul.ip2region.xdb.Searcher;
+import org.springframework.util.StreamUtils;
 
 import javax.servlet.http.HttpServletRequest;
-import java.io.File;
-import java.io.IOException;
+import java.io.InputStream;
 import java.net.*;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author YiHui
@@ -172,33 +178,54 @@ public class IpUtil {
      * <a href="https://github.com/lionsoul2014/ip2region/tree/master/binding/java"/>
      */
     private static final String dbPath = "data/ip2region.xdb";
-    private static String tmpPath = null;
-    private static volatile byte[] vIndex = null;
+    private static final String METRIC_NAME = "paicoding.ip.region";
+    /**
+     * 整个xdb文件加载到内存中的查询对象，基于内存的查询不涉及文件io，可以安全的并发使用
+     */
+    private static volatile Searcher searcher = null;
+    /**
+     * 最近查询的 ip -> 地址 缓存
+     */
+    private static final Cache<String, String> REGION_CACHE = Caffeine.newBuilder()
+            .maximumSize(4096)
+            .recordStats()
+            .build();
+
+    /**
+     * xdb的实际查询耗时与次数，缓存命中情况见 cache.gets{cache=ipRegion}
+     */
+    private static final Timer SEARCH_TIMER = Metrics.timer(METRIC_NAME + ".search");
+
+    static {
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, REGION_CACHE, "ipRegion");
+    }
 
-    private static void initVIndex() {
-        if (vIndex == null) {
+    private static Searcher getSearcher() {
+        if (searcher == null) {
             synchronized (IpUtil.class) {
-                if (vIndex == null) {
-                    try {
-                        String file = IpUtil.class.getClassLoader().getResource(dbPath).getFile();
-                        if (file.contains(".jar!")) {
-                            // RandomAccessFile 无法加载jar包内的文件，因此我们将资源拷贝到临时目录下
-                            FileWriteUtil.FileInfo tmpFile = new FileWriteUtil.FileInfo("/tmp/data", "ip2region", "xdb");
-                            tmpPath = tmpFile.getAbsFile();
-                            if (!new File(tmpPath).exists()) {
-                                // fixme 如果已经存在，则无需继续拷贝，因此当ip库变更之后，需要手动去删除 临时目录下生成的文件，避免出现更新不生效；更好的方式则是比较两个文件的差异性；当不同时，也需要拷贝过去
-                                FileWriteUtil.saveFileByStream(IpUtil.class.getClassLoader().getResourceAsStream(dbPath), tmpFile);
-                            }
-                        } else {
-                            tmpPath = file;
+                if (searcher == null) {
+                    long start = System.currentTimeMillis();
+                    // 直接读取classpath下的资源，jar包内的文件也无需拷贝到临时目录
+                    try (InputStream stream = IpUtil.class.getClassLoader().getResourceAsStream(dbPath)) {
+                        byte[] content = StreamUtils.copyToByteArray(stream);
+                        if (content.length == 0) {
+                            log.error("ip2region xdb not found: {}", dbPath);
+                            return null;
                         }
-                        vIndex = Searcher.loadVectorIndexFromFile(tmpPath);
+                        searcher = Searcher.newWithBuffer(content);
+                        long cost = System.currentTimeMillis() - start;
+                        Gauge.builder(METRIC_NAME + ".xdb.bytes", content, c -> c.length).strongReference(true)
+                                .description("xdb加载到内存的字节数").register(Metrics.globalRegistry);
+                        Gauge.builder(METRIC_NAME + ".load.ms", cost, Long::doubleValue).strongReference(true)
+                                .description("xdb加载耗时").register(Metrics.globalRegistry);
+                        log.info("ip2region xdb加载完成! size: {} bytes, cost: {}ms", content.length, cost);
                     } catch (Exception e) {
-                        log.error("failed to load vector index from {}\n", dbPath, e);
+                        log.error("failed to load content from {}\n", dbPath, e);
                     }
                 }
             }
         }
+        return searcher;
     }
 
     /**
@@ -209,23 +236,26 @@ public class IpUtil {
      * @return
      */
     public static IpRegionInfo getLocationByIp(String ip) {
-        // 2、使用全局的 vIndex 创建带 VectorIndex 缓存的查询对象。
-        initVIndex();
-        Searcher searcher = null;
+        if (ip == null) {
+            return new IpRegionInfo("");
+        }
+        return new IpRegionInfo(REGION_CACHE.get(ip, IpUtil::searchRegion));
+    }
+
+    private static String searchRegion(String ip) {
+        Searcher searcher = getSearcher();
+        if (searcher == null) {
+            return "";
+        }
+
+        long start = System.nanoTime();
         try {
-            searcher = Searcher.newWithVectorIndex(tmpPath, vIndex);
-            return new IpRegionInfo(searcher.search(ip));
+            return searcher.search(ip);
         } catch (Exception e) {
-            log.error("failed to create vectorIndex cached searcher with {}: {}\n", dbPath, e);
-            return new IpRegionInfo("");
+            log.error("failed to search ip region with {}: {}\n", ip, e.getMessage());
+            return "";
         } finally {
-            if (searcher != null) {
-                try {
-                    searcher.close();
-                } catch (IOException e) {
-                    log.error("failed to close file:{}\n", dbPath, e);
-                }
-            }
+            SEARCH_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 }
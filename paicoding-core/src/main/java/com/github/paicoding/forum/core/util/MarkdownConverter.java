@@ -19,8 +19,13 @@ import java.util.Arrays;
  * @date 4/15/23
  */
 public class MarkdownConverter {
-    // 定义一个静态方法，将 Markdown 文本转换为 HTML
-    public static String markdownToHtml(String markdown) {
+    /**
+     * 解析器与渲染器只在类加载时构建一次；flexmark 的 Parser/HtmlRenderer 构建完成后是不可变的，可以多线程共享
+     */
+    private static final Parser PARSER;
+    private static final HtmlRenderer RENDERER;
+
+    static {
         // 创建一个 MutableDataSet 对象来配置 Markdown 解析器的选项
         MutableDataSet options = new MutableDataSet();
 
@@ -34,11 +39,14 @@ public class MarkdownConverter {
                 TablesExtension.create()));     // 表格扩展，用于解析和渲染表格
 
         // 使用配置的选项构建一个 Markdown 解析器
-        Parser parser = Parser.builder(options).build();
+        PARSER = Parser.builder(options).build();
         // 使用相同的选项构建一个 HTML 渲染器
-        HtmlRenderer renderer = HtmlRenderer.builder(options).build();
+        RENDERER = HtmlRenderer.builder(options).build();
+    }
 
+    // 定义一个静态方法，将 Markdown 文本转换为 HTML
+    public static String markdownToHtml(String markdown) {
         // 解析传入的 Markdown 文本并将其渲染为 HTML
-        return renderer.render(parser.parse(markdown));
+        return RENDERER.render(PARSER.parse(markdown));
     }
 }
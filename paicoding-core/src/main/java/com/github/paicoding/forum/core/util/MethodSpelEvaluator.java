@@ -0,0 +1,87 @@
+package com.github.paicoding.forum.core.util;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.Expression;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 切面中以方法参数为变量的 SpEL 表达式计算
+ * <p>
+ * - 表达式按方法解析一次后缓存，参数名也随之按方法缓存，不再每次调用都重新解析、反射获取参数名
+ * - 每次计算仍需要新的上下文来存放参数变量，但属性访问器共享，其内部缓存的 getter 不会随上下文一起丢弃
+ * - 编译模式为 IMMEDIATE/MIXED 时，表达式在首次执行后编译为字节码，之后的计算不再走解释执行
+ *
+ * @author YiHui
+ * @date 2024/4/11
+ */
+public class MethodSpelEvaluator {
+    private final SpelExpressionParser parser;
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private final BeanResolver beanResolver;
+
+    private final List<PropertyAccessor> propertyAccessors = Collections.singletonList(new ReflectivePropertyAccessor());
+
+    /**
+     * 方法 -> 解析后的表达式
+     */
+    private final Map<Method, MethodExpression> cache = new ConcurrentHashMap<>();
+
+    public MethodSpelEvaluator(BeanResolver beanResolver, SpelCompilerMode compilerMode, ClassLoader classLoader) {
+        this.beanResolver = beanResolver;
+        this.parser = new SpelExpressionParser(new SpelParserConfiguration(compilerMode, classLoader));
+    }
+
+    /**
+     * 以方法参数作为变量，计算表达式的值
+     *
+     * @param method     表达式所在的方法
+     * @param expression 表达式
+     * @param args       方法参数
+     * @param type       返回类型，为null时不做转换
+     * @return
+     */
+    public <T> T getValue(Method method, String expression, Object[] args, Class<T> type) {
+        MethodExpression exp = cache.get(method);
+        if (exp == null || !exp.source.equals(expression)) {
+            exp = new MethodExpression(expression, parser.parseExpression(expression), parameterNameDiscoverer.getParameterNames(method));
+            cache.put(method, exp);
+        }
+
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        context.setBeanResolver(beanResolver);
+        context.setPropertyAccessors(propertyAccessors);
+        if (exp.params != null) {
+            for (int i = 0; i < exp.params.length && i < args.length; i++) {
+                context.setVariable(exp.params[i], args[i]);
+            }
+        }
+        return exp.expression.getValue(context, type);
+    }
+
+    private static class MethodExpression {
+        private final String source;
+        private final Expression expression;
+        private final String[] params;
+
+        MethodExpression(String source, Expression expression, String[] params) {
+            this.source = source;
+            this.expression = expression;
+            this.params = params;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.github.paicoding.forum.core.util.id;
 
 import com.github.paicoding.forum.core.async.AsyncUtil;
 import com.github.paicoding.forum.core.util.CompressUtil;
+import com.github.paicoding.forum.core.util.id.snowflake.MillisSnowflakeIdGenerator;
 import com.github.paicoding.forum.core.util.id.snowflake.PaiSnowflakeIdGenerator;
 import com.github.paicoding.forum.core.util.id.snowflake.SnowflakeProducer;
 
@@ -13,17 +14,57 @@ import static com.github.paicoding.forum.core.util.CompressUtil.int2str;
  */
 public class IdUtil {
     /**
-     * 默认的id生成器
+     * 默认的id生成器：日期前缀 + 秒级雪花，由单独的线程预生成到队列中
      */
     public static SnowflakeProducer DEFAULT_ID_PRODUCER = new SnowflakeProducer(new PaiSnowflakeIdGenerator());
 
+    /**
+     * 毫秒级的无锁生成器，配置 paicoding.id.mode=millis 时启用，直接在调用线程中生成
+     */
+    private static volatile MillisSnowflakeIdGenerator millisGenerator;
+
+    /**
+     * 切换id生成模式
+     *
+     * @param mode day: 日期前缀的秒级雪花(默认，与历史id格式一致); millis: 毫秒级雪花，生成的id大于历史id，趋势递增不受影响
+     */
+    public static void useMode(String mode) {
+        if ("millis".equalsIgnoreCase(mode)) {
+            if (millisGenerator == null) {
+                millisGenerator = new MillisSnowflakeIdGenerator();
+            }
+        } else {
+            millisGenerator = null;
+        }
+    }
+
     /**
      * 生成全局id
      *
      * @return
      */
     public static Long genId() {
-        return DEFAULT_ID_PRODUCER.genId();
+        MillisSnowflakeIdGenerator generator = millisGenerator;
+        return generator != null ? generator.nextId() : DEFAULT_ID_PRODUCER.genId();
+    }
+
+    /**
+     * 批量生成全局id
+     *
+     * @param n 数量
+     * @return
+     */
+    public static long[] genIds(int n) {
+        MillisSnowflakeIdGenerator generator = millisGenerator;
+        if (generator != null) {
+            return generator.nextIds(n);
+        }
+
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = DEFAULT_ID_PRODUCER.genId();
+        }
+        return ids;
     }
 
     /**
@@ -35,6 +76,16 @@ public class IdUtil {
         return CompressUtil.int2str(genId());
     }
 
+    /**
+     * 批量生成字符串格式全局id
+     *
+     * @param n
+     * @return
+     */
+    public static String[] genStrIds(int n) {
+        return CompressUtil.int2str(genIds(n));
+    }
+
     public static void main(String[] args) {
         System.out.println(IdUtil.genStrId());
         Long id = IdUtil.genId();
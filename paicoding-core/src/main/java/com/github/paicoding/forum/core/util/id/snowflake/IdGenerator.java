@@ -11,4 +11,18 @@ public interface IdGenerator {
      * @return
      */
     Long nextId();
+
+    /**
+     * 批量生成分布式id
+     *
+     * @param n 数量
+     * @return
+     */
+    default long[] nextIds(int n) {
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = nextId();
+        }
+        return ids;
+    }
 }
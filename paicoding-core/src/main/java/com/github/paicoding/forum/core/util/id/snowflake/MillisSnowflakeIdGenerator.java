@@ -0,0 +1,150 @@
+package com.github.paicoding.forum.core.util.id.snowflake;
+
+import com.github.paicoding.forum.core.util.IpUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 毫秒级、无锁的雪花算法生成器
+ * <p>
+ * 时间(41位，毫秒) + 数据中心(3位) + 机器id(7位) + 序列号(12位)
+ * <p>
+ * - 上次分配到的 (时间, 序列号) 合并存放在一个 AtomicLong 中，通过 CAS 分配，不需要加锁
+ * - 同一毫秒内序列号用完时，直接借用下一毫秒的序列号，最多领先当前时间 {@link #MAX_BORROW_MILLIS} 毫秒，超出后等待时间追上
+ * - 时钟回拨时同样继续在上次的时间上递增，保证id不重复且单调递增；回拨超过 {@link #MAX_BACKWARD_MILLIS} 毫秒时直接抛异常
+ * - 支持一次分配一批连续的id，批量分配只需要一次 CAS
+ *
+ * @author YiHui
+ * @date 2024/4/8
+ */
+@Slf4j
+public class MillisSnowflakeIdGenerator implements IdGenerator {
+    /**
+     * 起始时间 2023-01-01 00:00:00 (+08:00)
+     */
+    private static final long EPOCH = 1672502400000L;
+
+    private static final long SEQUENCE_BITS = 12L;
+    private static final long WORKER_ID_BITS = 7L;
+    private static final long DATA_CENTER_BITS = 3L;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final long WORKER_ID_LEFT_SHIFT_BITS = SEQUENCE_BITS;
+    private static final long DATACENTER_LEFT_SHIFT_BITS = SEQUENCE_BITS + WORKER_ID_BITS;
+    private static final long TIMESTAMP_LEFT_SHIFT_BITS = SEQUENCE_BITS + WORKER_ID_BITS + DATA_CENTER_BITS;
+
+    /**
+     * 序列号用完时，允许借用未来多少毫秒的序列号
+     */
+    private static final long MAX_BORROW_MILLIS = 5L;
+
+    /**
+     * 可以等待的最大时钟回拨
+     */
+    private static final long MAX_BACKWARD_MILLIS = 1000L;
+
+    /**
+     * 数据中心 + 机器id 对应的位
+     */
+    private final long node;
+
+    /**
+     * 上次分配的 (时间 << 序列号位数) | 序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    public MillisSnowflakeIdGenerator() {
+        long workId = 1, dataCenter = 1;
+        try {
+            String[] cells = StringUtils.split(IpUtil.getLocalIp4Address(), ".");
+            dataCenter = Integer.parseInt(cells[2]);
+            workId = Integer.parseInt(cells[3]);
+        } catch (Exception e) {
+            log.warn("根据ip生成机器id失败，使用默认值", e);
+        }
+        this.node = node(workId, dataCenter);
+    }
+
+    public MillisSnowflakeIdGenerator(int workId, int dataCenter) {
+        this.node = node(workId, dataCenter);
+    }
+
+    private static long node(long workId, long dataCenter) {
+        return ((dataCenter & ((1L << DATA_CENTER_BITS) - 1)) << DATACENTER_LEFT_SHIFT_BITS)
+                | ((workId & ((1L << WORKER_ID_BITS) - 1)) << WORKER_ID_LEFT_SHIFT_BITS);
+    }
+
+    @Override
+    public Long nextId() {
+        return toId(allocate(1));
+    }
+
+    /**
+     * 批量生成一批单调递增的id
+     *
+     * @param n 数量，不超过单毫秒的序列号总数 4096
+     * @return
+     */
+    @Override
+    public long[] nextIds(int n) {
+        if (n <= 0 || n > SEQUENCE_MASK + 1) {
+            throw new IllegalArgumentException("批量生成的id数量需在 1 - " + (SEQUENCE_MASK + 1) + " 之间: " + n);
+        }
+
+        long start = allocate(n);
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = toId(start + i);
+        }
+        return ids;
+    }
+
+    /**
+     * 分配 n 个连续的 (时间, 序列号)
+     *
+     * @param n
+     * @return 第一个的 (时间 << 序列号位数) | 序列号
+     */
+    private long allocate(int n) {
+        while (true) {
+            long last = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            // 进入新的一毫秒时序列号从0开始；否则在上次的基础上递增，序列号溢出时自然进位到下一毫秒
+            long start = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            long end = start + n - 1;
+            long ahead = (end >>> SEQUENCE_BITS) - now;
+            if (ahead > MAX_BORROW_MILLIS) {
+                waitClock(ahead);
+                continue;
+            }
+
+            if (state.compareAndSet(last, end)) {
+                return start;
+            }
+        }
+    }
+
+    /**
+     * 已分配的时间领先当前时间太多(序列号用完，或者时钟回拨)，等待时间追上
+     *
+     * @param ahead 领先的毫秒数
+     */
+    private void waitClock(long ahead) {
+        if (ahead > MAX_BACKWARD_MILLIS) {
+            throw new IllegalStateException("时钟回拨 " + ahead + "ms，拒绝生成id");
+        }
+        if (ahead > MAX_BORROW_MILLIS * 10) {
+            log.warn("时钟回拨 {}ms，等待时间追上", ahead);
+        }
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ahead - MAX_BORROW_MILLIS));
+    }
+
+    private long toId(long timeAndSequence) {
+        return ((timeAndSequence >>> SEQUENCE_BITS) << TIMESTAMP_LEFT_SHIFT_BITS) | node | (timeAndSequence & SEQUENCE_MASK);
+    }
+}
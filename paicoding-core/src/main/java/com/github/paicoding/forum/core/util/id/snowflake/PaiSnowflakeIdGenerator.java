@@ -54,6 +54,16 @@ public class PaiSnowflakeIdGenerator implements IdGenerator {
 
     private byte sequenceOffset;
 
+    /**
+     * 日期分区拼接在 11 位数字之前
+     */
+    private static final long DAY_SEGMENT_BASE = 100_000_000_000L;
+    /**
+     * 最近一次计算日期分区的时间(秒)与结果，同一秒内不重复计算
+     */
+    private long segmentTime = -1;
+    private long segment;
+
     public PaiSnowflakeIdGenerator() {
         try {
             String ip = IpUtil.getLocalIp4Address();
@@ -93,7 +103,8 @@ public class PaiSnowflakeIdGenerator implements IdGenerator {
         if (log.isDebugEnabled()) {
             log.debug("seconds:{}, datacenter:{}, work:{}, seq:{}, ans={}", nowTime % DateUtil.ONE_DAY_SECONDS, dataCenter, workId, sequence, ans);
         }
-        return Long.parseLong(String.format("%s%011d", getDaySegment(nowTime), ans));
+        // 等价于 Long.parseLong(String.format("%s%011d", 日期分区, ans))
+        return getDaySegment(nowTime) * DAY_SEGMENT_BASE + ans;
     }
 
     /**
@@ -143,10 +154,14 @@ public class PaiSnowflakeIdGenerator implements IdGenerator {
      * 基于年月日构建分区
      *
      * @param time 时间戳
-     * @return 时间分区
+     * @return 时间分区，两位年份 + 三位当年的第几天
      */
-    private static String getDaySegment(long time) {
-        LocalDateTime localDate = DateUtil.time2LocalTime(time * 1000L);
-        return String.format("%02d%03d", localDate.getYear() % 100, localDate.getDayOfYear());
+    private long getDaySegment(long time) {
+        if (time != segmentTime) {
+            LocalDateTime localDate = DateUtil.time2LocalTime(time * 1000L);
+            segment = (localDate.getYear() % 100) * 1000L + localDate.getDayOfYear();
+            segmentTime = time;
+        }
+        return segment;
     }
 }
@@ -12,6 +12,7 @@ import com.github.paicoding.forum.api.model.enums.DocumentTypeEnum;
 import com.github.paicoding.forum.api.model.enums.OfficalStatEnum;
 import com.github.paicoding.forum.api.model.enums.PushStatusEnum;
 import com.github.paicoding.forum.api.model.enums.YesOrNoEnum;
+import com.github.paicoding.forum.api.model.vo.PageCursor;
 import com.github.paicoding.forum.api.model.vo.PageParam;
 import com.github.paicoding.forum.api.model.vo.article.dto.ArticleAdminDTO;
 import com.github.paicoding.forum.api.model.vo.article.dto.ArticleDTO;
@@ -27,11 +28,17 @@ import com.github.paicoding.forum.service.article.repository.mapper.ArticleDetai
 import com.github.paicoding.forum.service.article.repository.mapper.ArticleMapper;
 import com.github.paicoding.forum.service.article.repository.mapper.ReadCountMapper;
 import com.github.paicoding.forum.service.article.repository.params.SearchArticleParams;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Maps;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -52,6 +59,21 @@ public class ArticleDao extends ServiceImpl<ArticleMapper, ArticleDO> {
     @Resource
     private ArticleMapper articleMapper;
 
+    /**
+     * 文章正文缓存，key: 文章id_版本号；正文每次修改版本号都会+1，因此缓存内容不会过期，只需按字符数限制总量
+     */
+    private final Cache<String, String> detailCache = CacheBuilder.newBuilder()
+            .maximumWeight(16 * 1024 * 1024)
+            .weigher((String key, String content) -> content.length())
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .recordStats()
+            .build();
+
+    @PostConstruct
+    public void init() {
+        GuavaCacheMetrics.monitor(Metrics.globalRegistry, detailCache, "articleDetail");
+    }
+
 
     /**
      * 查询文章详情
@@ -69,8 +91,9 @@ public class ArticleDao extends ServiceImpl<ArticleMapper, ArticleDO> {
         // 查询文章正文
         ArticleDTO dto = ArticleConverter.toDto(article);
         if (showReviewContent(article)) {
-            ArticleDetailDO detail = findLatestDetail(articleId);
+            ArticleDetailDO detail = findLatestDetail(article);
             dto.setContent(detail.getContent());
+            dto.setVersion(detail.getVersion());
         } else {
             // 对于审核中的文章，只有作者本人才能看到原文
             dto.setContent("### 文章审核中，请稍后再看");
@@ -95,13 +118,64 @@ public class ArticleDao extends ServiceImpl<ArticleMapper, ArticleDO> {
 
     // ------------ article content  ----------------
 
-    private ArticleDetailDO findLatestDetail(long articleId) {
-        // 查询文章内容
+    /**
+     * 查询文章最新版本的正文
+     *
+     * @param articleId
+     * @return
+     */
+    public ArticleDetailDO findLatestDetail(long articleId) {
+        ArticleDO article = baseMapper.selectById(articleId);
+        return article == null ? null : findLatestDetail(article);
+    }
+
+    /**
+     * 根据文章记录上的当前版本号查询正文，走 (article_id, version) 唯一索引的点查，并按版本缓存正文
+     *
+     * @param article
+     * @return
+     */
+    private ArticleDetailDO findLatestDetail(ArticleDO article) {
+        Long version = article.getDetailVersion();
+        if (version == null || version <= 0) {
+            // 未记录版本号的历史数据，按版本倒序取最新的一条
+            return findLatestDetailByVersion(article.getId());
+        }
+
+        String key = detailCacheKey(article.getId(), version);
+        String content = detailCache.getIfPresent(key);
+        if (content == null) {
+            LambdaQueryWrapper<ArticleDetailDO> contentQuery = Wrappers.lambdaQuery();
+            contentQuery.eq(ArticleDetailDO::getArticleId, article.getId())
+                    .eq(ArticleDetailDO::getVersion, version)
+                    .eq(ArticleDetailDO::getDeleted, YesOrNoEnum.NO.getCode());
+            ArticleDetailDO detail = articleDetailMapper.selectOne(contentQuery);
+            if (detail == null) {
+                // 版本号与正文记录不一致时，兜底按版本倒序查询
+                return findLatestDetailByVersion(article.getId());
+            }
+            content = detail.getContent() == null ? "" : detail.getContent();
+            detailCache.put(key, content);
+        }
+
+        ArticleDetailDO detail = new ArticleDetailDO();
+        detail.setArticleId(article.getId());
+        detail.setVersion(version);
+        detail.setContent(content);
+        return detail;
+    }
+
+    private ArticleDetailDO findLatestDetailByVersion(long articleId) {
         LambdaQueryWrapper<ArticleDetailDO> contentQuery = Wrappers.lambdaQuery();
         contentQuery.eq(ArticleDetailDO::getDeleted, YesOrNoEnum.NO.getCode())
                 .eq(ArticleDetailDO::getArticleId, articleId)
-                .orderByDesc(ArticleDetailDO::getVersion);
-        return articleDetailMapper.selectList(contentQuery).get(0);
+                .orderByDesc(ArticleDetailDO::getVersion)
+                .last("limit 1");
+        return articleDetailMapper.selectOne(contentQuery);
+    }
+
+    private static String detailCacheKey(long articleId, long version) {
+        return articleId + "_" + version;
     }
 
     /**
@@ -117,26 +191,31 @@ public class ArticleDao extends ServiceImpl<ArticleMapper, ArticleDO> {
         detail.setContent(content);
         detail.setVersion(1L);
         articleDetailMapper.insert(detail);
+        updateDetailVersion(articleId, detail.getVersion());
         return detail.getId();
     }
 
     /**
-     * 更正文章正文
+     * 更正文章正文，每次修改都插入一条版本 +1 的新记录，并将文章记录上的当前版本号指向它
+     * <p>
+     * 已写入的版本不再修改，正文缓存按 文章id_版本号 缓存，不会读到旧的正文
      *
      * @param articleId
      * @param content
-     * @param update    true 表示更新最后一条记录； false 表示新插入一个新的记录
      */
-    public void updateArticleContent(Long articleId, String content, boolean update) {
-        if (update) {
-            articleDetailMapper.updateContent(articleId, content);
-        } else {
-            ArticleDetailDO latest = findLatestDetail(articleId);
-            latest.setVersion(latest.getVersion() + 1);
-            latest.setId(null);
-            latest.setContent(content);
-            articleDetailMapper.insert(latest);
-        }
+    public void updateArticleContent(Long articleId, String content) {
+        ArticleDetailDO latest = findLatestDetail(articleId);
+        ArticleDetailDO detail = new ArticleDetailDO();
+        detail.setArticleId(articleId);
+        detail.setVersion(latest.getVersion() + 1);
+        detail.setContent(content);
+        articleDetailMapper.insert(detail);
+        updateDetailVersion(articleId, detail.getVersion());
+        detailCache.invalidate(detailCacheKey(articleId, latest.getVersion()));
+    }
+
+    private void updateDetailVersion(Long articleId, Long version) {
+        lambdaUpdate().set(ArticleDO::getDetailVersion, version).eq(ArticleDO::getId, articleId).update();
     }
 
     // ------------- 文章列表查询 --------------
@@ -147,6 +226,7 @@ public class ArticleDao extends ServiceImpl<ArticleMapper, ArticleDO> {
                 .eq(ArticleDO::getUserId, userId)
                 .last(PageParam.getLimitSql(pageParam))
                 .orderByDesc(ArticleDO::getId);
+        Optional.ofNullable(pageParam.getCursor()).ifPresent(cursor -> query.lt(ArticleDO::getId, cursor.getId()));
         if (!Objects.equals(ReqInfoContext.getReqInfo().getUserId(), userId)) {
             // 作者本人，可以查看草稿、审核、上线文章；其他用户，只能查看上线的文章
             query.eq(ArticleDO::getStatus, PushStatusEnum.ONLINE.getCode());
@@ -171,8 +251,17 @@ public class ArticleDao extends ServiceImpl<ArticleMapper, ArticleDO> {
         }
 
         Optional.ofNullable(categoryId).ifPresent(cid -> query.eq(ArticleDO::getCategoryId, cid));
+        PageCursor cursor = pageParam.getCursor();
+        if (cursor != null && cursor.getSorts().size() == 2) {
+            // 基于游标翻页: (topping_stat, create_time, id) < (游标)
+            Long topping = cursor.getSorts().get(0);
+            Date createTime = new Date(cursor.getSorts().get(1));
+            query.and(v -> v.lt(ArticleDO::getToppingStat, topping)
+                    .or(o -> o.eq(ArticleDO::getToppingStat, topping).lt(ArticleDO::getCreateTime, createTime))
+                    .or(o -> o.eq(ArticleDO::getToppingStat, topping).eq(ArticleDO::getCreateTime, createTime).lt(ArticleDO::getId, cursor.getId())));
+        }
         query.last(PageParam.getLimitSql(pageParam))
-                .orderByDesc(ArticleDO::getToppingStat,  ArticleDO::getCreateTime);
+                .orderByDesc(ArticleDO::getToppingStat, ArticleDO::getCreateTime, ArticleDO::getId);
         return baseMapper.selectList(query);
     }
 
@@ -215,6 +304,7 @@ public class ArticleDao extends ServiceImpl<ArticleMapper, ArticleDO> {
                                 .like(ArticleDO::getShortTitle, key)
                                 .or()
                                 .like(ArticleDO::getSummary, key));
+        Optional.ofNullable(pageParam.getCursor()).ifPresent(cursor -> query.lt(ArticleDO::getId, cursor.getId()));
         query.last(PageParam.getLimitSql(pageParam))
                 .orderByDesc(ArticleDO::getId);
         return baseMapper.selectList(query);
@@ -243,24 +333,19 @@ public class ArticleDao extends ServiceImpl<ArticleMapper, ArticleDO> {
 
 
     /**
-     * 阅读计数
+     * 批量累加文章的阅读计数
      *
-     * @param articleId
-     * @return
+     * @param counts 文章id -> 阅读增量
      */
-    public int incrReadCount(Long articleId) {
-        LambdaQueryWrapper<ReadCountDO> query = Wrappers.lambdaQuery();
-        query.eq(ReadCountDO::getDocumentId, articleId).eq(ReadCountDO::getDocumentType, DocumentTypeEnum.ARTICLE.getCode());
-        ReadCountDO record = readCountMapper.selectOne(query);
-        if (record == null) {
-            record = new ReadCountDO().setDocumentId(articleId).setDocumentType(DocumentTypeEnum.ARTICLE.getCode()).setCnt(1);
-            readCountMapper.insert(record);
-        } else {
-            // fixme: 这里存在并发覆盖问题，推荐使用 update read_count set cnt = cnt + 1 where id = xxx
-            record.setCnt(record.getCnt() + 1);
-            readCountMapper.updateById(record);
+    public void batchIncrReadCount(Map<Long, Integer> counts) {
+        if (CollectionUtils.isEmpty(counts)) {
+            return;
         }
-        return record.getCnt();
+
+        List<ReadCountDO> list = new ArrayList<>(counts.size());
+        counts.forEach((articleId, cnt) -> list.add(new ReadCountDO().setDocumentId(articleId)
+                .setDocumentType(DocumentTypeEnum.ARTICLE.getCode()).setCnt(cnt)));
+        readCountMapper.batchIncrCnt(list);
     }
 
     /**
@@ -306,7 +391,28 @@ public class ArticleDao extends ServiceImpl<ArticleMapper, ArticleDO> {
      * @return
      */
     public List<ArticleDO> listRelatedArticlesOrderByReadCount(Long categoryId, List<Long> tagIds, PageParam pageParam) {
-        List<ReadCountDO> list = baseMapper.listArticleByCategoryAndTags(categoryId, tagIds, pageParam);
+        return listArticlesByReadCounts(listRelatedArticleReadCounts(categoryId, tagIds, pageParam));
+    }
+
+    /**
+     * 根据相同的类目 + 标签，按照阅读计数倒序查询文章的阅读计数
+     *
+     * @param categoryId
+     * @param tagIds
+     * @param pageParam 基于游标翻页时，游标为 (阅读计数, 文章id)
+     * @return
+     */
+    public List<ReadCountDO> listRelatedArticleReadCounts(Long categoryId, List<Long> tagIds, PageParam pageParam) {
+        return baseMapper.listArticleByCategoryAndTags(categoryId, tagIds, pageParam);
+    }
+
+    /**
+     * 查询阅读计数对应的文章，保持阅读计数列表的顺序
+     *
+     * @param list
+     * @return
+     */
+    public List<ArticleDO> listArticlesByReadCounts(List<ReadCountDO> list) {
         if (CollectionUtils.isEmpty(list)) {
             return new ArrayList<>();
         }
@@ -1,5 +1,7 @@
 package com.github.paicoding.forum.service.article.repository.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.github.paicoding.forum.api.model.entity.BaseDO;
 import com.github.paicoding.forum.api.model.enums.PushStatusEnum;
@@ -88,5 +90,11 @@ public class ArticleDO extends BaseDO {
      */
     private Integer creamStat;
 
+    /**
+     * 当前正文版本号，对应 article_detail.version；只通过 ArticleDao 更新正文时维护，避免整行更新时覆盖
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Long detailVersion;
+
     private Integer deleted;
 }
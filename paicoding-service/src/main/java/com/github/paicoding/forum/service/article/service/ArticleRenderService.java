@@ -0,0 +1,19 @@
+package com.github.paicoding.forum.service.article.service;
+
+import com.github.paicoding.forum.api.model.vo.article.dto.ArticleDTO;
+
+/**
+ * 文章正文渲染
+ *
+ * @author YiHui
+ * @date 2024/3/16
+ */
+public interface ArticleRenderService {
+    /**
+     * 将文章的 markdown 正文渲染为 html，渲染结果按 文章id + 正文版本 缓存
+     *
+     * @param article 文章详情，需包含正文与版本号
+     * @return html格式的正文
+     */
+    String renderHtml(ArticleDTO article);
+}
@@ -7,6 +7,7 @@ import com.github.paicoding.forum.api.model.enums.HomeSelectEnum;
 import com.github.paicoding.forum.api.model.enums.OperateTypeEnum;
 import com.github.paicoding.forum.api.model.enums.PraiseStatEnum;
 import com.github.paicoding.forum.api.model.exception.ExceptionUtil;
+import com.github.paicoding.forum.api.model.vo.PageCursor;
 import com.github.paicoding.forum.api.model.vo.PageListVo;
 import com.github.paicoding.forum.api.model.vo.PageParam;
 import com.github.paicoding.forum.api.model.vo.PageVo;
@@ -15,12 +16,16 @@ import com.github.paicoding.forum.api.model.vo.article.dto.CategoryDTO;
 import com.github.paicoding.forum.api.model.vo.article.dto.SimpleArticleDTO;
 import com.github.paicoding.forum.api.model.vo.article.dto.TagDTO;
 import com.github.paicoding.forum.api.model.vo.constants.StatusEnum;
+import com.github.paicoding.forum.api.model.vo.user.dto.ArticleFootCountDTO;
 import com.github.paicoding.forum.api.model.vo.user.dto.BaseUserInfoDTO;
+import com.github.paicoding.forum.core.dal.DsAno;
+import com.github.paicoding.forum.core.dal.MasterSlaveDsEnum;
 import com.github.paicoding.forum.core.util.ArticleUtil;
 import com.github.paicoding.forum.service.article.conveter.ArticleConverter;
 import com.github.paicoding.forum.service.article.repository.dao.ArticleDao;
 import com.github.paicoding.forum.service.article.repository.dao.ArticleTagDao;
 import com.github.paicoding.forum.service.article.repository.entity.ArticleDO;
+import com.github.paicoding.forum.service.article.repository.entity.ReadCountDO;
 import com.github.paicoding.forum.service.article.service.ArticleReadService;
 import com.github.paicoding.forum.service.article.service.CategoryService;
 import com.github.paicoding.forum.service.constant.EsFieldConstant;
@@ -101,12 +106,14 @@ public class ArticleReadServiceImpl implements ArticleReadService {
         return ArticleUtil.pickSummary(content);
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public PageVo<TagDTO> queryTagsByArticleId(Long articleId) {
         List<TagDTO> tagDTOS = articleTagDao.queryArticleTagDetails(articleId);
         return PageVo.build(tagDTOS, 1, 10, tagDTOS.size());
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public ArticleDTO queryDetailArticleInfo(Long articleId) {
         ArticleDTO article = articleDao.queryArticleDetail(articleId);
@@ -167,10 +174,13 @@ public class ArticleReadServiceImpl implements ArticleReadService {
      * @param page
      * @return
      */
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public PageListVo<ArticleDTO> queryArticlesByCategory(Long categoryId, PageParam page) {
         List<ArticleDO> records = articleDao.listArticlesByCategoryId(categoryId, page);
-        return buildArticleListVo(records, page.getPageSize());
+        // 游标为 (置顶状态, 创建时间, 文章id)
+        return PageListVo.newVo(fillArticleRelatedInfo(records), page.getPageSize(),
+                a -> PageCursor.of(a.getArticleId(), a.getToppingStat().longValue(), a.getCreateTime()));
     }
 
     /**
@@ -179,29 +189,39 @@ public class ArticleReadServiceImpl implements ArticleReadService {
      * @param categoryId
      * @return
      */
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public List<ArticleDTO> queryTopArticlesByCategory(Long categoryId) {
         PageParam page = PageParam.newPageInstance(PageParam.DEFAULT_PAGE_NUM, PageParam.TOP_PAGE_SIZE);
         List<ArticleDO> articleDTOS = articleDao.listArticlesByCategoryId(categoryId, page);
-        return articleDTOS.stream().map(this::fillArticleRelatedInfo).collect(Collectors.toList());
+        return fillArticleRelatedInfo(articleDTOS);
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public Long queryArticleCountByCategory(Long categoryId) {
         return articleDao.countArticleByCategoryId(categoryId);
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public Map<Long, Long> queryArticleCountsByCategory() {
         return articleDao.countArticleByCategoryId();
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public PageListVo<ArticleDTO> queryArticlesByTag(Long tagId, PageParam page) {
-        List<ArticleDO> records = articleDao.listRelatedArticlesOrderByReadCount(null, Arrays.asList(tagId), page);
-        return buildArticleListVo(records, page.getPageSize());
+        List<ReadCountDO> counts = articleDao.listRelatedArticleReadCounts(null, Arrays.asList(tagId), page);
+        PageListVo<ArticleDTO> vo = buildArticleListVo(articleDao.listArticlesByReadCounts(counts), page.getPageSize());
+        if (vo.getHasMore()) {
+            ReadCountDO last = counts.get(counts.size() - 1);
+            vo.setCursor(PageCursor.of(last.getDocumentId(), last.getCnt().longValue()).encode());
+        }
+        return vo;
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public List<SimpleArticleDTO> querySimpleArticleBySearchKey(String key) {
         // todo 当key为空时，返回热门推荐
@@ -243,35 +263,46 @@ public class ArticleReadServiceImpl implements ArticleReadService {
                 .collect(Collectors.toList());
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public PageListVo<ArticleDTO> queryArticlesBySearchKey(String key, PageParam page) {
         List<ArticleDO> records = articleDao.listArticlesByBySearchKey(key, page);
-        return buildArticleListVo(records, page.getPageSize());
+        return PageListVo.newVo(fillArticleRelatedInfo(records), page.getPageSize(), a -> PageCursor.of(a.getArticleId()));
     }
 
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public PageListVo<ArticleDTO> queryArticlesByUserAndType(Long userId, PageParam pageParam, HomeSelectEnum select) {
         List<ArticleDO> records = null;
+        PageCursor cursor = null;
         if (select == HomeSelectEnum.ARTICLE) {
             // 用户的文章列表
             records = articleDao.listArticlesByUserId(userId, pageParam);
-        } else if (select == HomeSelectEnum.READ) {
-            // 用户的阅读记录
-            List<Long> articleIds = userFootService.queryUserReadArticleList(userId, pageParam);
-            records = CollectionUtils.isEmpty(articleIds) ? Collections.emptyList() : articleDao.listByIds(articleIds);
-            records = sortByIds(articleIds, records);
-        } else if (select == HomeSelectEnum.COLLECTION) {
-            // 用户的收藏列表
-            List<Long> articleIds = userFootService.queryUserCollectionArticleList(userId, pageParam);
+            if (!CollectionUtils.isEmpty(records)) {
+                cursor = PageCursor.of(records.get(records.size() - 1).getId());
+            }
+        } else if (select == HomeSelectEnum.READ || select == HomeSelectEnum.COLLECTION) {
+            // 用户的阅读记录 / 收藏列表，游标为足迹的 (更新时间, 主键)
+            List<UserFootDO> foots = select == HomeSelectEnum.READ ? userFootService.queryUserReadArticleList(userId, pageParam)
+                    : userFootService.queryUserCollectionArticleList(userId, pageParam);
+            List<Long> articleIds = foots.stream().map(UserFootDO::getDocumentId).collect(Collectors.toList());
             records = CollectionUtils.isEmpty(articleIds) ? Collections.emptyList() : articleDao.listByIds(articleIds);
             records = sortByIds(articleIds, records);
+            if (!CollectionUtils.isEmpty(foots)) {
+                UserFootDO last = foots.get(foots.size() - 1);
+                cursor = PageCursor.of(last.getId(), last.getUpdateTime().getTime());
+            }
         }
 
         if (CollectionUtils.isEmpty(records)) {
             return PageListVo.emptyVo();
         }
-        return buildArticleListVo(records, pageParam.getPageSize());
+        PageListVo<ArticleDTO> vo = buildArticleListVo(records, pageParam.getPageSize());
+        if (vo.getHasMore() && cursor != null) {
+            vo.setCursor(cursor.encode());
+        }
+        return vo;
     }
 
     /**
@@ -294,42 +325,67 @@ public class ArticleReadServiceImpl implements ArticleReadService {
 
     @Override
     public PageListVo<ArticleDTO> buildArticleListVo(List<ArticleDO> records, long pageSize) {
-        List<ArticleDTO> result = records.stream().map(this::fillArticleRelatedInfo).collect(Collectors.toList());
+        List<ArticleDTO> result = fillArticleRelatedInfo(records);
         return PageListVo.newVo(result, pageSize);
     }
 
+    /**
+     * 批量补全文章信息，计数统计、作者信息都批量获取，避免列表渲染时逐篇查询
+     *
+     * @param records
+     * @return
+     */
+    private List<ArticleDTO> fillArticleRelatedInfo(List<ArticleDO> records) {
+        if (CollectionUtils.isEmpty(records)) {
+            return new ArrayList<>();
+        }
+        Map<Long, ArticleFootCountDTO> counts = countService.queryArticleStatisticInfo(
+                records.stream().map(ArticleDO::getId).collect(Collectors.toList()));
+        Map<Long, BaseUserInfoDTO> authors = userService.queryBasicUserInfoMap(
+                records.stream().map(ArticleDO::getUserId).collect(Collectors.toSet()));
+        return records.stream().map(record -> fillArticleRelatedInfo(record, counts, authors)).collect(Collectors.toList());
+    }
+
     /**
      * 补全文章的阅读计数、作者、分类、标签等信息
      *
      * @param record
+     * @param counts  批量查询的文章计数
+     * @param authors 批量查询的作者信息
      * @return
      */
-    private ArticleDTO fillArticleRelatedInfo(ArticleDO record) {
+    private ArticleDTO fillArticleRelatedInfo(ArticleDO record, Map<Long, ArticleFootCountDTO> counts, Map<Long, BaseUserInfoDTO> authors) {
         ArticleDTO dto = ArticleConverter.toDto(record);
         // 分类信息
         dto.getCategory().setCategory(categoryService.queryCategoryName(record.getCategoryId()));
         // 标签列表
         dto.setTags(articleTagDao.queryArticleTagDetails(record.getId()));
-        // 阅读计数统计
-        dto.setCount(countService.queryArticleStatisticInfo(record.getId()));
+        // 阅读计数统计，批量查询对每篇文章都会返回结果(无计数时各项为0)
+        dto.setCount(counts.get(record.getId()));
         // 作者信息
-        BaseUserInfoDTO author = userService.queryBasicUserInfo(dto.getAuthor());
+        BaseUserInfoDTO author = authors.get(dto.getAuthor());
+        if (author == null) {
+            author = userService.queryBasicUserInfo(dto.getAuthor());
+        }
         dto.setAuthorName(author.getUserName());
         dto.setAuthorAvatar(author.getPhoto());
         return dto;
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public PageListVo<SimpleArticleDTO> queryHotArticlesForRecommend(PageParam pageParam) {
         List<SimpleArticleDTO> list = articleDao.listHotArticles(pageParam);
         return PageListVo.newVo(list, pageParam.getPageSize());
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public int queryArticleCount(long authorId) {
         return articleDao.countArticleByUser(authorId);
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public Long getArticleCount() {
         return articleDao.countArticle();
@@ -0,0 +1,104 @@
+package com.github.paicoding.forum.service.article.service.impl;
+
+import com.github.paicoding.forum.api.model.enums.ArticleEventEnum;
+import com.github.paicoding.forum.api.model.event.ArticleMsgEvent;
+import com.github.paicoding.forum.api.model.vo.article.dto.ArticleDTO;
+import com.github.paicoding.forum.core.util.MarkdownConverter;
+import com.github.paicoding.forum.service.article.repository.dao.ArticleDao;
+import com.github.paicoding.forum.service.article.repository.entity.ArticleDO;
+import com.github.paicoding.forum.service.article.repository.entity.ArticleDetailDO;
+import com.github.paicoding.forum.service.article.service.ArticleRenderService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章正文渲染
+ * <p>
+ * - 渲染结果按 文章id + 正文版本 + 正文md5 缓存，审核期间原地修改正文不会升级版本，因此额外带上正文的摘要；
+ *   不使用 String#hashCode，32位的hash冲突时会返回旧的html
+ * - 缓存按html的字符数限制总量，长文多时自动淘汰
+ * - 文章发布时异步预渲染，首个读者不用承担渲染开销
+ *
+ * @author YiHui
+ * @date 2024/3/16
+ */
+@Slf4j
+@Service
+public class ArticleRenderServiceImpl implements ArticleRenderService {
+    /**
+     * 缓存的html总字符数上限
+     */
+    private static final long MAX_CACHE_CHARS = 32 * 1024 * 1024;
+
+    @Resource
+    private ArticleDao articleDao;
+
+    private Cache<String, String> htmlCache;
+
+    @PostConstruct
+    public void init() {
+        htmlCache = CacheBuilder.newBuilder()
+                .maximumWeight(MAX_CACHE_CHARS)
+                .weigher((String key, String html) -> html.length())
+                .expireAfterAccess(1, TimeUnit.DAYS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(Metrics.globalRegistry, htmlCache, "articleHtml");
+    }
+
+    @Override
+    public String renderHtml(ArticleDTO article) {
+        return render(article.getArticleId(), article.getVersion(), article.getContent());
+    }
+
+    private String render(Long articleId, Long version, String markdown) {
+        if (markdown == null) {
+            return null;
+        }
+        if (articleId == null || version == null) {
+            // 审核中的占位内容等没有版本号的正文，直接渲染
+            return MarkdownConverter.markdownToHtml(markdown);
+        }
+
+        String key = articleId + "_" + version + "_" + DigestUtils.md5Hex(markdown);
+        try {
+            return htmlCache.get(key, () -> MarkdownConverter.markdownToHtml(markdown));
+        } catch (ExecutionException e) {
+            log.warn("文章渲染异常! articleId: {}", articleId, e);
+            return MarkdownConverter.markdownToHtml(markdown);
+        }
+    }
+
+    /**
+     * 文章上线时，预渲染最新版本的正文
+     *
+     * @param event
+     */
+    @Async
+    @EventListener(ArticleMsgEvent.class)
+    public void preRender(ArticleMsgEvent<ArticleDO> event) {
+        if (event.getType() != ArticleEventEnum.ONLINE) {
+            return;
+        }
+
+        Long articleId = event.getContent().getId();
+        try {
+            ArticleDetailDO detail = articleDao.findLatestDetail(articleId);
+            render(articleId, detail.getVersion(), detail.getContent());
+        } catch (Exception e) {
+            log.warn("文章预渲染异常! articleId: {}", articleId, e);
+        }
+    }
+}
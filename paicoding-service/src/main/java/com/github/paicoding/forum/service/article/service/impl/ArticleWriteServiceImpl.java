@@ -159,7 +159,6 @@ public class ArticleWriteServiceImpl implements ArticleWriteService {
      * @return
      */
     private Long updateArticle(ArticleDO article, String content, Set<Long> tags) {
-        // fixme 待补充文章的历史版本支持：若文章处于审核状态，则直接更新上一条记录；否则新插入一条记录
         boolean review = article.getStatus().equals(PushStatusEnum.REVIEW.getCode());
         if (needToReview(article)) {
             article.setStatus(PushStatusEnum.REVIEW.getCode());
@@ -169,7 +168,7 @@ public class ArticleWriteServiceImpl implements ArticleWriteService {
         articleDao.updateById(article);
 
         // 更新内容
-        articleDao.updateArticleContent(article.getId(), content, review);
+        articleDao.updateArticleContent(article.getId(), content);
 
         // 标签更新
         if (tags != null && tags.size() > 0) {
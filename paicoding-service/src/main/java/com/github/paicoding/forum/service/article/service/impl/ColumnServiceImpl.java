@@ -20,6 +20,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -52,7 +53,10 @@ public class ColumnServiceImpl implements ColumnService {
     @Override
     public PageListVo<ColumnDTO> listColumn(PageParam pageParam) {
         List<ColumnInfoDO> columnList = columnDao.listOnlineColumns(pageParam);
-        List<ColumnDTO> result = columnList.stream().map(this::buildColumnInfo).collect(Collectors.toList());
+        Map<Long, BaseUserInfoDTO> authors = userService.queryBasicUserInfoMap(
+                columnList.stream().map(ColumnInfoDO::getUserId).collect(Collectors.toSet()));
+        List<ColumnDTO> result = columnList.stream().map(s -> buildColumnInfo(ColumnConvert.toDto(s), authors.get(s.getUserId())))
+                .collect(Collectors.toList());
         return PageListVo.newVo(result, pageParam.getPageSize());
     }
 
@@ -71,19 +75,22 @@ public class ColumnServiceImpl implements ColumnService {
         return buildColumnInfo(queryBasicColumnInfo(columnId));
     }
 
-    private ColumnDTO buildColumnInfo(ColumnInfoDO info) {
-        return buildColumnInfo(ColumnConvert.toDto(info));
+    private ColumnDTO buildColumnInfo(ColumnDTO dto) {
+        return buildColumnInfo(dto, null);
     }
 
     /**
      * 构建专栏详情信息
      *
      * @param dto
+     * @param user 已批量查询的作者信息，为null时单独查询
      * @return
      */
-    private ColumnDTO buildColumnInfo(ColumnDTO dto) {
+    private ColumnDTO buildColumnInfo(ColumnDTO dto, BaseUserInfoDTO user) {
         // 补齐专栏对应的用户信息
-        BaseUserInfoDTO user = userService.queryBasicUserInfo(dto.getAuthor());
+        if (user == null) {
+            user = userService.queryBasicUserInfo(dto.getAuthor());
+        }
         dto.setAuthorName(user.getUserName());
         dto.setAuthorAvatar(user.getPhoto());
         dto.setAuthorProfile(user.getProfile());
@@ -9,6 +9,8 @@ import com.github.paicoding.forum.api.model.vo.comment.dto.BaseCommentDTO;
 import com.github.paicoding.forum.api.model.vo.comment.dto.SubCommentDTO;
 import com.github.paicoding.forum.api.model.vo.comment.dto.TopCommentDTO;
 import com.github.paicoding.forum.api.model.vo.user.dto.BaseUserInfoDTO;
+import com.github.paicoding.forum.core.dal.DsAno;
+import com.github.paicoding.forum.core.dal.MasterSlaveDsEnum;
 import com.github.paicoding.forum.service.comment.converter.CommentConverter;
 import com.github.paicoding.forum.service.comment.repository.dao.CommentDao;
 import com.github.paicoding.forum.service.comment.repository.entity.CommentDO;
@@ -49,6 +51,7 @@ public class CommentReadServiceImpl implements CommentReadService {
         return commentDao.getById(commentId);
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public List<TopCommentDTO> getArticleComments(Long articleId, PageParam page) {
         // 1.查询一级评论
@@ -66,10 +69,11 @@ public class CommentReadServiceImpl implements CommentReadService {
         buildCommentRelation(subComments, topComments);
 
         // 4.挑出需要返回的数据，排序，并补齐对应的用户信息，最后排序返回
+        Map<Long, BaseUserInfoDTO> users = queryCommentUsers(topComments.values());
         List<TopCommentDTO> result = new ArrayList<>();
         comments.forEach(comment -> {
             TopCommentDTO dto = topComments.get(comment.getId());
-            fillTopCommentInfo(dto);
+            fillTopCommentInfo(dto, users);
             result.add(dto);
         });
 
@@ -99,14 +103,30 @@ public class CommentReadServiceImpl implements CommentReadService {
         });
     }
 
+    /**
+     * 一次性查询所有评论（含子评论）的用户信息
+     *
+     * @param comments
+     * @return
+     */
+    private Map<Long, BaseUserInfoDTO> queryCommentUsers(Collection<TopCommentDTO> comments) {
+        Set<Long> userIds = new HashSet<>();
+        comments.forEach(comment -> {
+            userIds.add(comment.getUserId());
+            comment.getChildComments().forEach(sub -> userIds.add(sub.getUserId()));
+        });
+        return userService.queryBasicUserInfoMap(userIds);
+    }
+
     /**
      * 填充评论对应的信息
      *
      * @param comment
+     * @param users   批量查询的用户信息
      */
-    private void fillTopCommentInfo(TopCommentDTO comment) {
-        fillCommentInfo(comment);
-        comment.getChildComments().forEach(this::fillCommentInfo);
+    private void fillTopCommentInfo(TopCommentDTO comment, Map<Long, BaseUserInfoDTO> users) {
+        fillCommentInfo(comment, users);
+        comment.getChildComments().forEach(sub -> fillCommentInfo(sub, users));
         Collections.sort(comment.getChildComments());
     }
 
@@ -114,9 +134,10 @@ public class CommentReadServiceImpl implements CommentReadService {
      * 填充评论对应的信息，如用户信息，点赞数等
      *
      * @param comment
+     * @param users   批量查询的用户信息，已注销的用户不在其中
      */
-    private void fillCommentInfo(BaseCommentDTO comment) {
-        BaseUserInfoDTO userInfoDO = userService.queryBasicUserInfo(comment.getUserId());
+    private void fillCommentInfo(BaseCommentDTO comment, Map<Long, BaseUserInfoDTO> users) {
+        BaseUserInfoDTO userInfoDO = users.get(comment.getUserId());
         if (userInfoDO == null) {
             // 如果用户注销，给一个默认的用户
             comment.setUserName("默认用户");
@@ -153,6 +174,7 @@ public class CommentReadServiceImpl implements CommentReadService {
      * @param articleId
      * @return
      */
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public TopCommentDTO queryHotComment(Long articleId) {
         CommentDO comment = commentDao.getHotComment(articleId);
@@ -167,10 +189,11 @@ public class CommentReadServiceImpl implements CommentReadService {
         result.setChildComments(subs);
 
         // 填充评论信息
-        fillTopCommentInfo(result);
+        fillTopCommentInfo(result, queryCommentUsers(Collections.singletonList(result)));
         return result;
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public int queryCommentCount(Long articleId) {
         return commentDao.commentCount(articleId);
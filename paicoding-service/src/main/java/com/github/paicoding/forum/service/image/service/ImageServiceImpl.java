@@ -6,6 +6,7 @@ import com.github.paicoding.forum.api.model.exception.ExceptionUtil;
 import com.github.paicoding.forum.api.model.exception.ForumException;
 import com.github.paicoding.forum.api.model.vo.constants.StatusEnum;
 import com.github.paicoding.forum.core.async.AsyncExecute;
+import com.github.paicoding.forum.core.async.AsyncPoolEnum;
 import com.github.paicoding.forum.core.async.AsyncUtil;
 import com.github.paicoding.forum.core.mdc.MdcDot;
 import com.github.paicoding.forum.core.util.MdImgLoader;
@@ -13,7 +14,6 @@ import com.github.paicoding.forum.service.image.oss.ImageUploader;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +28,7 @@ import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -141,12 +142,12 @@ public class ImageServiceImpl implements ImageService {
         }
 
         // 超过1张图片时，做并发的图片转存，提升性能
-        AsyncUtil.CompletableFutureBridge bridge = AsyncUtil.concurrentExecutor("MdImgReplace");
-        Map<MdImgLoader.MdImg, String> imgReplaceMap = Maps.newHashMapWithExpectedSize(imgList.size());
+        AsyncUtil.CompletableFutureBridge bridge = AsyncUtil.concurrentExecutor(AsyncPoolEnum.IMAGE, "MdImgReplace");
+        Map<MdImgLoader.MdImg, String> imgReplaceMap = new ConcurrentHashMap<>(imgList.size());
         for (MdImgLoader.MdImg img : imgList) {
             bridge.runAsyncWithTimeRecord(() -> {
                 imgReplaceMap.put(img, saveImg(img.getUrl()));
-            }, img.getUrl());
+            }, "saveImg");
         }
         bridge.allExecuted().prettyPrint();
 
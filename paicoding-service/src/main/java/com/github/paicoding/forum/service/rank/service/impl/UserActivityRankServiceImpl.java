@@ -8,17 +8,30 @@ import com.github.paicoding.forum.core.util.DateUtil;
 import com.github.paicoding.forum.service.rank.service.UserActivityRankService;
 import com.github.paicoding.forum.service.rank.service.model.ActivityScoreBo;
 import com.github.paicoding.forum.service.user.service.UserService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
+import javax.annotation.PreDestroy;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -31,9 +44,69 @@ import java.util.stream.IntStream;
 public class UserActivityRankServiceImpl implements UserActivityRankService {
     private static final String ACTIVITY_SCORE_KEY = "activity_rank_";
 
+    /**
+     * 活跃度更新脚本
+     * <p>
+     * KEYS: 用户当天的操作记录, 日榜, 月榜
+     * ARGV: 用户id, 每个操作的活跃分, 操作记录有效期, 月榜有效期, 操作1, 操作2...
+     * <p>
+     * - 加分：之前没有记录的操作才加分，并记录下来
+     * - 减分：之前加过分的操作才减分，并删除记录
+     * - 日榜/月榜首次出现该用户时，设置榜单的有效期(日榜与操作记录相同，保存31天)
+     * 返回更新后的日榜分数，没有变化时返回nil
+     */
+    private static final RedisScript<Long> ACTIVITY_SCORE_SCRIPT = new DefaultRedisScript<>(
+            "local score = tonumber(ARGV[2])\n" +
+                    "local add = 0\n" +
+                    "for i = 5, #ARGV do\n" +
+                    "  local old = redis.call('HGET', KEYS[1], ARGV[i])\n" +
+                    "  if score > 0 then\n" +
+                    "    if not old then\n" +
+                    "      redis.call('HSET', KEYS[1], ARGV[i], score)\n" +
+                    "      add = add + score\n" +
+                    "    end\n" +
+                    "  elseif score < 0 and old and tonumber(old) > 0 then\n" +
+                    "    redis.call('HDEL', KEYS[1], ARGV[i])\n" +
+                    "    add = add + score\n" +
+                    "  end\n" +
+                    "end\n" +
+                    "if add == 0 then\n" +
+                    "  return nil\n" +
+                    "end\n" +
+                    "if add > 0 then\n" +
+                    "  redis.call('EXPIRE', KEYS[1], ARGV[3])\n" +
+                    "end\n" +
+                    "local newAns = tonumber(redis.call('ZINCRBY', KEYS[2], add, ARGV[1]))\n" +
+                    "redis.call('ZINCRBY', KEYS[3], add, ARGV[1])\n" +
+                    "if add > 0 and newAns <= add then\n" +
+                    "  redis.call('EXPIRE', KEYS[2], ARGV[3])\n" +
+                    "  redis.call('EXPIRE', KEYS[3], ARGV[4])\n" +
+                    "end\n" +
+                    "return newAns",
+            Long.class);
+
     @Autowired
     private UserService userService;
 
+    /**
+     * true 表示路径访问的加分先在本地聚合，定时批量提交
+     */
+    @Value("${paicoding.rank.path-aggregate:false}")
+    private boolean pathAggregate;
+
+    /**
+     * 本地记录当天已经加过分的路径访问，重复访问直接跳过，不再请求redis
+     */
+    private final Cache<String, Boolean> visitedPaths = CacheBuilder.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(1, TimeUnit.DAYS)
+            .build();
+
+    /**
+     * 用户当天的操作记录key -> 待提交的路径访问
+     */
+    private final Map<String, PendingScore> pendingPathScores = new ConcurrentHashMap<>();
+
     /**
      * 当天活跃度排行榜
      *
@@ -94,44 +167,110 @@ public class UserActivityRankServiceImpl implements UserActivityRankService {
             return;
         }
 
-        final String todayRankKey = todayRankKey();
-        final String monthRankKey = monthRankKey();
-        // 2. 幂等：判断之前是否有更新过相关的活跃度信息
+        if (score == 0) {
+            return;
+        }
+
+        // 2. 幂等：用户当天的操作记录，保证同一个行为只加一次分
         final String userActionKey = ACTIVITY_SCORE_KEY + userId + DateUtil.format(DateTimeFormatter.ofPattern("yyyyMMdd"), System.currentTimeMillis());
-        Integer ans = RedisClient.hGet(userActionKey, field, Integer.class);
-        if (ans == null) {
-            // 2.1 之前没有加分记录，执行具体的加分
-            if (score > 0) {
-                // 记录加分记录
-                RedisClient.hSet(userActionKey, field, score);
-                // 个人用户的操作记录，保存一个月的有效期，方便用户查询自己最近31天的活跃情况
-                RedisClient.expire(userActionKey, 31 * DateUtil.ONE_DAY_SECONDS);
-
-                // 更新当天和当月的活跃度排行榜
-                Double newAns = RedisClient.zIncrBy(todayRankKey, String.valueOf(userId), score);
-                RedisClient.zIncrBy(monthRankKey, String.valueOf(userId), score);
-                if (log.isDebugEnabled()) {
-                    log.info("活跃度更新加分! key#field = {}#{}, add = {}, newScore = {}", todayRankKey, userId, score, newAns);
-                }
-                if (newAns <= score) {
-                    // 日活跃榜单，保存31天；月活跃榜单，保存1年
-                    RedisClient.expire(todayRankKey, 31 * DateUtil.ONE_DAY_SECONDS);
-                    RedisClient.expire(monthRankKey, 12 * DateUtil.ONE_MONTH_SECONDS);
-                }
+
+        if (activityScore.getPath() != null) {
+            // 路径访问只有加分，没有对应的减分，当天加过分之后，重复访问都不会再有变化
+            if (visitedPaths.getIfPresent(userActionKey + "#" + field) != null) {
+                return;
             }
-        } else if (ans > 0) {
-            // 2.2 之前已经加过分，因此这次减分可以执行
-            if (score < 0) {
-                Boolean oldHave = RedisClient.hDel(userActionKey, field);
-                if (BooleanUtils.isTrue(oldHave)) {
-                    Double newAns = RedisClient.zIncrBy(todayRankKey, String.valueOf(userId), score);
-                    RedisClient.zIncrBy(monthRankKey, String.valueOf(userId), score);
-                    if (log.isDebugEnabled()) {
-                        log.info("活跃度更新减分! key#field = {}#{}, add = {}, newScore = {}", todayRankKey, userId, score, newAns);
+
+            if (pathAggregate) {
+                // 先在本地聚合，定时批量提交；在 compute 中添加，与提交时的移除互斥，不会加到已被取走的对象上
+                String visitField = field;
+                pendingPathScores.compute(userActionKey, (k, pending) -> {
+                    if (pending == null) {
+                        pending = new PendingScore(userId, todayRankKey(), monthRankKey());
                     }
-                }
+                    pending.fields.add(visitField);
+                    return pending;
+                });
+                return;
             }
         }
+
+        doAddActivityScore(userId, userActionKey, todayRankKey(), monthRankKey(), score, Collections.singletonList(field));
+        if (activityScore.getPath() != null) {
+            visitedPaths.put(userActionKey + "#" + field, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * 通过lua脚本原子的完成 幂等判断 + 记录操作 + 更新日/月排行榜
+     *
+     * @param userId        用户
+     * @param userActionKey 用户当天的操作记录
+     * @param todayRankKey  日榜
+     * @param monthRankKey  月榜
+     * @param score         每个操作的活跃分，正为加分，负为减分
+     * @param fields        操作
+     */
+    private void doAddActivityScore(Long userId, String userActionKey, String todayRankKey, String monthRankKey, int score, Collection<String> fields) {
+        Object[] args = new Object[fields.size() + 4];
+        args[0] = userId;
+        args[1] = score;
+        args[2] = 31 * DateUtil.ONE_DAY_SECONDS;
+        args[3] = 12 * DateUtil.ONE_MONTH_SECONDS;
+        int index = 4;
+        for (String field : fields) {
+            args[index++] = field;
+        }
+
+        Long newAns = RedisClient.eval(ACTIVITY_SCORE_SCRIPT, Arrays.asList(userActionKey, todayRankKey, monthRankKey), args);
+        if (newAns != null && log.isDebugEnabled()) {
+            log.info("活跃度更新! key#field = {}#{}, add = {} * {}, newScore = {}", todayRankKey, userId, score, fields, newAns);
+        }
+    }
+
+    /**
+     * 定时提交本地聚合的路径访问加分
+     */
+    @Scheduled(fixedDelayString = "${paicoding.rank.path-aggregate-window:1000}")
+    public void flushPathScores() {
+        if (pendingPathScores.isEmpty()) {
+            return;
+        }
+
+        for (String userActionKey : pendingPathScores.keySet()) {
+            PendingScore pending = pendingPathScores.remove(userActionKey);
+            if (pending == null) {
+                continue;
+            }
+            try {
+                doAddActivityScore(pending.userId, userActionKey, pending.todayRankKey, pending.monthRankKey, 1, pending.fields);
+                pending.fields.forEach(field -> visitedPaths.put(userActionKey + "#" + field, Boolean.TRUE));
+            } catch (Exception e) {
+                // lua脚本是幂等的，失败的加分放回本地聚合中，下次提交时重试
+                log.warn("活跃度更新失败，等待下次提交! user: {}, fields: {}", pending.userId, pending.fields, e);
+                pendingPathScores.merge(userActionKey, pending, (cur, failed) -> {
+                    cur.fields.addAll(failed.fields);
+                    return cur;
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flushPathScores();
+    }
+
+    private static class PendingScore {
+        private final Long userId;
+        private final String todayRankKey;
+        private final String monthRankKey;
+        private final Set<String> fields = ConcurrentHashMap.newKeySet();
+
+        private PendingScore(Long userId, String todayRankKey, String monthRankKey) {
+            this.userId = userId;
+            this.todayRankKey = todayRankKey;
+            this.monthRankKey = monthRankKey;
+        }
     }
 
     @Override
@@ -157,7 +296,7 @@ public class UserActivityRankServiceImpl implements UserActivityRankService {
 
         // 2. 查询用户对应的基本信息
         // 构建userId -> 活跃评分的map映射，用于补齐用户信息
-        Map<Long, Integer> userScoreMap = rankList.stream().collect(Collectors.toMap(s -> Long.valueOf(s.getLeft()), s -> s.getRight().intValue()));
+        Map<Long, Integer> userScoreMap = rankList.stream().collect(Collectors.toMap(s -> Long.valueOf(s.getLeft()), s -> s.getRight().intValue(), (a, b) -> a, LinkedHashMap::new));
         List<SimpleUserInfoDTO> users = userService.batchQuerySimpleUserInfo(userScoreMap.keySet());
 
         // 3. 根据评分进行排序（默认已排序）
@@ -12,7 +12,34 @@ import java.time.format.DateTimeFormatter;
 public class SitemapConstants {
     public static final String SITE_VISIT_KEY = "visit_info";
 
+    /**
+     * uv 统计采用 HyperLogLog 时的key前缀
+     */
+    public static final String SITE_UV_KEY = "visit_uv";
+
     public static String day(LocalDate day) {
         return DateTimeFormatter.ofPattern("yyyyMMdd").format(day);
     }
+
+    /**
+     * HyperLogLog 的 uv key
+     * - visit_uv: 站点的总uv，由每日的uv合并而来
+     * - visit_uv_path: 资源的总uv
+     * - visit_uv_20230822: 站点当天的uv
+     * - visit_uv_20230822_path: 资源当天的uv
+     *
+     * @param day  为空时，表示全局
+     * @param path 为空时，表示全站
+     * @return
+     */
+    public static String uvKey(String day, String path) {
+        StringBuilder key = new StringBuilder(SITE_UV_KEY);
+        if (day != null) {
+            key.append("_").append(day);
+        }
+        if (path != null) {
+            key.append("_").append(path);
+        }
+        return key.toString();
+    }
 }
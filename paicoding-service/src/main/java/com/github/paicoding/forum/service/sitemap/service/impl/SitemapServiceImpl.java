@@ -25,6 +25,7 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +41,17 @@ public class SitemapServiceImpl implements SitemapService {
 
     private static final String SITE_MAP_CACHE_KEY = "sitemap";
 
+    /**
+     * 每日uv记录的保留时长，需要覆盖到合并到全局uv之后
+     */
+    private static final long DAY_UV_EXPIRE_SECONDS = TimeUnit.DAYS.toSeconds(7);
+
+    /**
+     * uv的统计方式：hash 按ip精确记录; hll 基于 HyperLogLog 估算，每个key的内存恒定
+     */
+    @Value("${paicoding.site.uv-mode:hash}")
+    private String uvMode;
+
     @Resource
     private ArticleDao articleDao;
     @Resource
@@ -176,6 +188,11 @@ public class SitemapServiceImpl implements SitemapService {
      */
     @Override
     public void saveVisitInfo(String visitIp, String path) {
+        if (useHll()) {
+            saveVisitInfoByHll(visitIp, path);
+            return;
+        }
+
         String globalKey = SitemapConstants.SITE_VISIT_KEY;
         String day = SitemapConstants.day(LocalDate.now());
 
@@ -236,6 +253,61 @@ public class SitemapServiceImpl implements SitemapService {
         }
     }
 
+    /**
+     * 基于 HyperLogLog 的访问统计，一次管道请求完成所有更新
+     * <p>
+     * - pv 依然记录在 visit_info 与 visit_info_20230822 的hash中
+     * - uv 记录在 HyperLogLog 中，标准误差约 0.81%，每个key最多占用 12KB，基数较小时为稀疏编码，占用更少
+     * - 站点总uv 不在每次访问时更新，由每日uv定时合并而来，查询时与当天的uv合并计算
+     *
+     * @param visitIp 访问者ip
+     * @param path    访问的资源路径
+     */
+    private void saveVisitInfoByHll(String visitIp, String path) {
+        String globalKey = SitemapConstants.SITE_VISIT_KEY;
+        String day = SitemapConstants.day(LocalDate.now());
+        String todayKey = globalKey + "_" + day;
+        byte[] ip = RedisClient.valBytes(visitIp);
+
+        RedisClient.pipelineAction()
+                .add(todayKey, "pv", (connection, key, field) -> connection.hIncrBy(key, field, 1))
+                .add(todayKey, "pv_" + path, (connection, key, field) -> connection.hIncrBy(key, field, 1))
+                .add(globalKey, "pv", (connection, key, field) -> connection.hIncrBy(key, field, 1))
+                .add(globalKey, "pv_" + path, (connection, key, field) -> connection.hIncrBy(key, field, 1))
+                .add(SitemapConstants.uvKey(day, null), (connection, key) -> {
+                    connection.pfAdd(key, ip);
+                    connection.expire(key, DAY_UV_EXPIRE_SECONDS);
+                })
+                .add(SitemapConstants.uvKey(day, path), (connection, key) -> {
+                    connection.pfAdd(key, ip);
+                    connection.expire(key, DAY_UV_EXPIRE_SECONDS);
+                })
+                .add(SitemapConstants.uvKey(null, path), (connection, key) -> connection.pfAdd(key, ip))
+                .execute();
+    }
+
+    /**
+     * 每天0:05分将前两天的uv合并到站点总uv中；合并操作是幂等的，多个节点重复执行也没有影响
+     */
+    @Scheduled(cron = "0 5 0 * * ?")
+    public void autoMergeDayUv() {
+        if (!useHll()) {
+            return;
+        }
+
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        String yesterdayKey = SitemapConstants.uvKey(SitemapConstants.day(yesterday), null);
+        RedisClient.pfMerge(SitemapConstants.uvKey(null, null), yesterdayKey,
+                SitemapConstants.uvKey(SitemapConstants.day(yesterday.minusDays(1)), null));
+        log.info("合并每日uv完成! 昨日uv: {}, 占用内存: {} bytes, 站点总uv: {}, 占用内存: {} bytes",
+                RedisClient.pfCount(yesterdayKey), RedisClient.memoryUsage(yesterdayKey),
+                RedisClient.pfCount(SitemapConstants.uvKey(null, null)), RedisClient.memoryUsage(SitemapConstants.uvKey(null, null)));
+    }
+
+    private boolean useHll() {
+        return "hll".equalsIgnoreCase(uvMode);
+    }
+
     /**
      * 查询站点某一天or总的访问信息
      *
@@ -244,6 +316,10 @@ public class SitemapServiceImpl implements SitemapService {
      * @return
      */
     public SiteCntVo querySiteVisitInfo(LocalDate date, String path) {
+        if (useHll()) {
+            return querySiteVisitInfoByHll(date, path);
+        }
+
         String globalKey = SitemapConstants.SITE_VISIT_KEY;
         String day = null, todayKey = globalKey;
         if (date != null) {
@@ -265,4 +341,40 @@ public class SitemapServiceImpl implements SitemapService {
         siteInfo.setUv(map.getOrDefault(uvField, 0));
         return siteInfo;
     }
+
+    /**
+     * 一次管道请求同时查询 pv 与 uv
+     *
+     * @param date
+     * @param path
+     * @return
+     */
+    private SiteCntVo querySiteVisitInfoByHll(LocalDate date, String path) {
+        String globalKey = SitemapConstants.SITE_VISIT_KEY;
+        String day = null, todayKey = globalKey;
+        String[] uvKeys;
+        if (date != null) {
+            day = SitemapConstants.day(date);
+            todayKey = globalKey + "_" + day;
+            uvKeys = new String[]{SitemapConstants.uvKey(day, path)};
+        } else if (path != null) {
+            uvKeys = new String[]{SitemapConstants.uvKey(null, path)};
+        } else {
+            // 站点总uv = 已合并的历史uv + 今天的uv
+            uvKeys = new String[]{SitemapConstants.uvKey(null, null), SitemapConstants.uvKey(SitemapConstants.day(LocalDate.now()), null)};
+        }
+
+        String pvField = path == null ? "pv" : "pv_" + path;
+        List<Object> res = RedisClient.readPipelineAction()
+                .add(todayKey, pvField, (connection, key, field) -> connection.hGet(key, field))
+                .add(uvKeys[0], (connection, key) -> connection.pfCount(RedisClient.keyBytes(Arrays.asList(uvKeys))))
+                .execute();
+
+        SiteCntVo siteInfo = new SiteCntVo();
+        siteInfo.setDay(day);
+        siteInfo.setPath(path);
+        siteInfo.setPv(res.get(0) == null ? 0 : Integer.parseInt(String.valueOf(res.get(0))));
+        siteInfo.setUv(res.get(1) == null ? 0 : ((Long) res.get(1)).intValue());
+        return siteInfo;
+    }
 }
@@ -49,4 +49,16 @@ public class RequestCountDao extends ServiceImpl<RequestCountMapper, RequestCoun
     public void incrementCount(Long id) {
         baseMapper.incrementCount(id);
     }
+
+    /**
+     * 批量累加请求计数
+     *
+     * @param list
+     */
+    public void batchIncrCount(List<RequestCountDO> list) {
+        if (list.isEmpty()) {
+            return;
+        }
+        baseMapper.batchIncrCount(list);
+    }
 }
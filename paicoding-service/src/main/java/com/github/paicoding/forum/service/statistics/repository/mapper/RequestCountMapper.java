@@ -3,6 +3,7 @@ package com.github.paicoding.forum.service.statistics.repository.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.github.paicoding.forum.api.model.vo.statistics.dto.StatisticsDayDTO;
 import com.github.paicoding.forum.service.statistics.repository.entity.RequestCountDO;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
@@ -39,4 +40,15 @@ public interface RequestCountMapper extends BaseMapper<RequestCountDO> {
      */
     @Update("update request_count set cnt = cnt + 1 where id = #{id}")
     void incrementCount(Long id);
+
+    /**
+     * 批量累加计数，当天的记录不存在时插入；依赖 (date, host) 唯一索引
+     *
+     * @param list 每条记录的 cnt 为本次需要累加的增量
+     * @return
+     */
+    @Insert("<script>insert into request_count (host, cnt, `date`) values " +
+            "<foreach collection='list' item='item' separator=','>(#{item.host}, #{item.cnt}, #{item.date})</foreach> " +
+            "on duplicate key update cnt = cnt + values(cnt)</script>")
+    int batchIncrCount(@Param("list") List<RequestCountDO> list);
 }
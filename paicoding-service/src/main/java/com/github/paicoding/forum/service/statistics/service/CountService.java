@@ -3,6 +3,9 @@ package com.github.paicoding.forum.service.statistics.service;
 import com.github.paicoding.forum.api.model.vo.user.dto.ArticleFootCountDTO;
 import com.github.paicoding.forum.api.model.vo.user.dto.UserStatisticInfoDTO;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * 计数统计相关
  *
@@ -56,6 +59,14 @@ public interface CountService {
      */
     ArticleFootCountDTO queryArticleStatisticInfo(Long articleId);
 
+    /**
+     * 批量查询文章相关的统计信息，一次redis管道请求完成，用于文章列表的渲染
+     *
+     * @param articleIds
+     * @return articleId -> 统计信息
+     */
+    Map<Long, ArticleFootCountDTO> queryArticleStatisticInfo(Collection<Long> articleIds);
+
 
     /**
      * 文章计数+1
@@ -7,6 +7,20 @@ package com.github.paicoding.forum.service.statistics.service;
  * @date 2023/3/26
  */
 public interface UserStatisticService {
+    /**
+     * 按 HttpSession 的创建/销毁统计单机的在线人数
+     */
+    String ONLINE_MODE_SESSION = "session";
+
+    /**
+     * 不创建 session，按设备的访问时间统计单机的在线人数
+     */
+    String ONLINE_MODE_WINDOW = "window";
+
+    /**
+     * 不创建 session，设备的访问时间记录在 redis 中，统计整个集群的在线人数
+     */
+    String ONLINE_MODE_CLUSTER = "cluster";
     /**
      * 添加在线人数
      *
@@ -15,6 +29,13 @@ public interface UserStatisticService {
      */
     int incrOnlineUserCnt(int add);
 
+    /**
+     * 记录设备访问，用于不创建 session 时的在线人数统计
+     *
+     * @param deviceId 设备id
+     */
+    void onlineVisit(String deviceId);
+
     /**
      * 查询在线用户人数
      *
@@ -0,0 +1,140 @@
+package com.github.paicoding.forum.service.statistics.service.help;
+
+import com.github.paicoding.forum.core.cache.RedisClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 集群维度的在线人数统计
+ * <p>
+ * - redis zset 中记录 设备id -> 最近一次上报时间，窗口内上报过的设备即为在线，所有节点看到的是同一个数
+ * - 同一设备每 {@link #REPORT_INTERVAL} 最多上报一次，待上报的设备在本地攒批，每秒通过一次 zadd 写入
+ * - 在线人数在本地缓存 {@link #COUNT_CACHE_INTERVAL}，页面渲染时不会每次都访问 redis
+ * - 过期设备由各节点定时 zremrangebyscore 清理，重复执行无副作用
+ * - redis 异常时只打印日志，不影响请求；在线人数返回上一次的结果
+ * - 仅在 paicoding.online.mode=cluster 时注册，其他模式下不会执行定时的上报与清理
+ *
+ * @author YiHui
+ * @date 2024/4/12
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "paicoding.online", name = "mode", havingValue = "cluster")
+public class ClusterOnlineCounter {
+    static final String ONLINE_KEY = "online_device";
+
+    private static final long REPORT_INTERVAL = 60_000L;
+
+    private static final long COUNT_CACHE_INTERVAL = 5_000L;
+
+    /**
+     * 设备id -> 最近一次上报(或待上报)的时间，只保留最近一分钟内上报过的设备
+     */
+    private final Map<String, Long> lastReport = new ConcurrentHashMap<>();
+
+    /**
+     * 待写入redis的 设备id -> 访问时间
+     */
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+
+    @Value("${paicoding.online.window:1800}")
+    private long windowSeconds;
+
+    @Value("${paicoding.online.max-devices:100000}")
+    private int maxDevices;
+
+    private volatile long cachedCount;
+
+    private volatile long cachedTime;
+
+    /**
+     * 记录一次设备访问，只写本地内存
+     *
+     * @param deviceId
+     */
+    public void visit(String deviceId) {
+        if (deviceId == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Long last = lastReport.get(deviceId);
+        if (last != null && now - last < REPORT_INTERVAL) {
+            return;
+        }
+        if (last == null && lastReport.size() >= maxDevices) {
+            return;
+        }
+        lastReport.put(deviceId, now);
+        pending.put(deviceId, now);
+    }
+
+    /**
+     * 集群的在线人数
+     *
+     * @return
+     */
+    public long count() {
+        long now = System.currentTimeMillis();
+        if (now - cachedTime < COUNT_CACHE_INTERVAL) {
+            return cachedCount;
+        }
+
+        cachedTime = now;
+        try {
+            Long cnt = RedisClient.zCount(ONLINE_KEY, now - windowSeconds * 1000, Double.POSITIVE_INFINITY);
+            cachedCount = cnt == null ? 0 : cnt;
+        } catch (Exception e) {
+            log.warn("查询在线人数失败", e);
+        }
+        return cachedCount;
+    }
+
+    /**
+     * 批量上报本地攒下的设备访问
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, Double> scores = new HashMap<>(pending.size());
+        Iterator<Map.Entry<String, Long>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            scores.put(entry.getKey(), entry.getValue().doubleValue());
+            iterator.remove();
+        }
+
+        try {
+            RedisClient.zAdd(ONLINE_KEY, scores);
+        } catch (Exception e) {
+            // 上报失败的设备在下一分钟的访问时重新上报
+            log.warn("在线设备上报失败: {}", scores.size(), e);
+            scores.keySet().forEach(lastReport::remove);
+        }
+    }
+
+    /**
+     * 清理过期的设备
+     */
+    @Scheduled(fixedDelay = 30_000)
+    public void purge() {
+        long now = System.currentTimeMillis();
+        lastReport.values().removeIf(time -> now - time >= REPORT_INTERVAL);
+        try {
+            RedisClient.zRemRangeByScore(ONLINE_KEY, 0, now - windowSeconds * 1000);
+        } catch (Exception e) {
+            log.warn("清理过期在线设备失败", e);
+        }
+    }
+}
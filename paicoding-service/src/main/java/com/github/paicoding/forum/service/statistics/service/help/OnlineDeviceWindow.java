@@ -0,0 +1,89 @@
+package com.github.paicoding.forum.service.statistics.service.help;
+
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于滑动窗口的在线人数统计，不依赖 HttpSession
+ * <p>
+ * - 记录每个设备最近一次的访问时间，窗口内访问过的设备即为在线
+ * - 同一设备在 {@link #REFRESH_INTERVAL} 内的重复访问不再更新访问时间，减少写操作
+ * - 每 {@link #PURGE_INTERVAL} 清理一次过期的设备，在线人数的误差不超过清理间隔
+ * - 设备数有上限，避免大量不带 cookie 的爬虫请求撑爆内存，超出时新设备不再计入
+ *
+ * @author YiHui
+ * @date 2024/4/12
+ */
+@Component
+public class OnlineDeviceWindow {
+    private static final long REFRESH_INTERVAL = 10_000L;
+
+    private static final long PURGE_INTERVAL = 30_000L;
+
+    /**
+     * 设备id -> 最近一次访问时间
+     */
+    private final Map<String, Long> lastVisit = new ConcurrentHashMap<>();
+
+    /**
+     * 在线的判定窗口(s)，与原来 session 的默认有效期保持一致
+     */
+    @Value("${paicoding.online.window:1800}")
+    private long windowSeconds;
+
+    /**
+     * 记录的设备数上限
+     */
+    @Value("${paicoding.online.max-devices:100000}")
+    private int maxDevices;
+
+    @PostConstruct
+    public void init() {
+        Metrics.gauge("paicoding.online.devices", lastVisit, Map::size);
+    }
+
+    /**
+     * 记录一次设备访问
+     *
+     * @param deviceId
+     */
+    public void visit(String deviceId) {
+        if (deviceId == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Long last = lastVisit.get(deviceId);
+        if (last != null) {
+            if (now - last >= REFRESH_INTERVAL) {
+                lastVisit.put(deviceId, now);
+            }
+            return;
+        }
+
+        if (lastVisit.size() < maxDevices) {
+            lastVisit.put(deviceId, now);
+        }
+    }
+
+    /**
+     * 在线人数
+     *
+     * @return
+     */
+    public int online() {
+        return lastVisit.size();
+    }
+
+    @Scheduled(fixedDelay = PURGE_INTERVAL)
+    public void purge() {
+        long expire = System.currentTimeMillis() - windowSeconds * 1000;
+        lastVisit.values().removeIf(time -> time < expire);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.paicoding.forum.service.statistics.service.help;
+
+import com.github.paicoding.forum.core.util.CounterBuffer;
+import com.github.paicoding.forum.service.article.repository.dao.ArticleDao;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * 文章阅读计数的写缓冲
+ * <p>
+ * - 每次阅读只在内存中累加，定时将增量批量写入 read_count 表，db写入量取决于周期内被阅读的文章数，而不是pv
+ * - 写db采用 cnt = cnt + 增量 的方式，多节点各自刷新自己的增量，总数依然准确
+ * - 应用关闭时会强制刷新一次；写db失败时增量回填到缓冲中，等待下次刷新
+ *
+ * @author YiHui
+ * @date 2024/3/23
+ */
+@Component
+public class ReadCountBuffer {
+    private static final String METRIC_NAME = "paicoding.read.count.buffer";
+
+    private final ArticleDao articleDao;
+
+    /**
+     * 文章id -> 尚未写入db的阅读增量；文章数有限，不设上限
+     */
+    private CounterBuffer<Long> buffer;
+
+    public ReadCountBuffer(ArticleDao articleDao) {
+        this.articleDao = articleDao;
+    }
+
+    @PostConstruct
+    public void init() {
+        buffer = new CounterBuffer<>(METRIC_NAME, Integer.MAX_VALUE, articleDao::batchIncrReadCount);
+    }
+
+    /**
+     * 阅读计数+1
+     *
+     * @param articleId
+     */
+    public void incr(Long articleId) {
+        buffer.incr(articleId);
+    }
+
+    /**
+     * 定时将增量刷新到db
+     */
+    @Scheduled(fixedDelayString = "${paicoding.read-count.flush-interval:5000}")
+    public void autoFlush() {
+        buffer.flush();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        buffer.flush();
+    }
+}
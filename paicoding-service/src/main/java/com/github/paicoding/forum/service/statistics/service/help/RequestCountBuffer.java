@@ -0,0 +1,112 @@
+package com.github.paicoding.forum.service.statistics.service.help;
+
+import com.github.paicoding.forum.core.util.CounterBuffer;
+import com.github.paicoding.forum.service.statistics.repository.dao.RequestCountDao;
+import com.github.paicoding.forum.service.statistics.repository.entity.RequestCountDO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 请求计数的写缓冲
+ * <p>
+ * - 请求线程只在内存中按 (host, date) 累加，不访问db
+ * - 定时通过一条 insert ... on duplicate key update 批量写入，0点的并发首次访问也不会重复插入
+ * - 待写入的 (host, date) 数量有上限，超出时丢弃新的计数；积压数量与丢弃次数通过 actuator 的 metrics 查看
+ *
+ * @author YiHui
+ * @date 2024/3/23
+ */
+@Component
+public class RequestCountBuffer {
+    private static final String METRIC_NAME = "paicoding.request.count.buffer";
+
+    private final RequestCountDao requestCountDao;
+
+    /**
+     * 待写入的 (host, date) 数量上限
+     */
+    @Value("${paicoding.request-count.max-pending:20000}")
+    private int maxPending;
+
+    private CounterBuffer<HostDay> buffer;
+
+    public RequestCountBuffer(RequestCountDao requestCountDao) {
+        this.requestCountDao = requestCountDao;
+    }
+
+    @PostConstruct
+    public void init() {
+        buffer = new CounterBuffer<>(METRIC_NAME, maxPending, this::save);
+    }
+
+    /**
+     * 请求计数+1
+     *
+     * @param host 访问ip
+     */
+    public void incr(String host) {
+        buffer.incr(new HostDay(host, LocalDate.now()));
+    }
+
+    /**
+     * 定时将增量刷新到db
+     */
+    @Scheduled(fixedDelayString = "${paicoding.request-count.flush-interval:5000}")
+    public void autoFlush() {
+        buffer.flush();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        buffer.flush();
+    }
+
+    private void save(Map<HostDay, Integer> counts) {
+        List<RequestCountDO> list = new ArrayList<>(counts.size());
+        counts.forEach((key, cnt) -> {
+            RequestCountDO record = new RequestCountDO();
+            record.setHost(key.host);
+            record.setDate(Date.valueOf(key.day));
+            record.setCnt(cnt);
+            list.add(record);
+        });
+        requestCountDao.batchIncrCount(list);
+    }
+
+    private static class HostDay {
+        private final String host;
+        private final LocalDate day;
+
+        private HostDay(String host, LocalDate day) {
+            this.host = host;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HostDay)) {
+                return false;
+            }
+            HostDay that = (HostDay) o;
+            return Objects.equals(host, that.host) && Objects.equals(day, that.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, day);
+        }
+    }
+}
@@ -8,16 +8,22 @@ import com.github.paicoding.forum.service.article.repository.dao.ArticleDao;
 import com.github.paicoding.forum.service.comment.service.CommentReadService;
 import com.github.paicoding.forum.service.statistics.constants.CountConstants;
 import com.github.paicoding.forum.service.statistics.service.CountService;
+import com.github.paicoding.forum.service.statistics.service.help.ReadCountBuffer;
 import com.github.paicoding.forum.service.user.repository.dao.UserDao;
 import com.github.paicoding.forum.service.user.repository.dao.UserFootDao;
 import com.github.paicoding.forum.service.user.repository.dao.UserRelationDao;
+import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
 
 import javax.annotation.Resource;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 计数服务，后续计数相关的可以考虑基于redis来做
@@ -42,6 +48,9 @@ public class CountServiceImpl implements CountService {
     @Resource
     private UserDao userDao;
 
+    @Resource
+    private ReadCountBuffer readCountBuffer;
+
     public CountServiceImpl(UserFootDao userFootDao) {
         this.userFootDao = userFootDao;
     }
@@ -90,6 +99,18 @@ public class CountServiceImpl implements CountService {
     @Override
     public ArticleFootCountDTO queryArticleStatisticInfo(Long articleId) {
         Map<String, Integer> ans = RedisClient.hGetAll(CountConstants.ARTICLE_STATISTIC_INFO + articleId, Integer.class);
+        return toArticleStatisticInfo(ans);
+    }
+
+    @Override
+    public Map<Long, ArticleFootCountDTO> queryArticleStatisticInfo(Collection<Long> articleIds) {
+        Map<Long, Map<String, Integer>> records = batchQueryStatistic(CountConstants.ARTICLE_STATISTIC_INFO, articleIds);
+        Map<Long, ArticleFootCountDTO> result = Maps.newHashMapWithExpectedSize(records.size());
+        records.forEach((articleId, ans) -> result.put(articleId, toArticleStatisticInfo(ans)));
+        return result;
+    }
+
+    private ArticleFootCountDTO toArticleStatisticInfo(Map<String, Integer> ans) {
         ArticleFootCountDTO info = new ArticleFootCountDTO();
         info.setPraiseCount(ans.getOrDefault(CountConstants.PRAISE_COUNT, 0));
         info.setCollectionCount(ans.getOrDefault(CountConstants.COLLECTION_COUNT, 0));
@@ -98,10 +119,32 @@ public class CountServiceImpl implements CountService {
         return info;
     }
 
+    /**
+     * 批量获取统计计数的hash
+     *
+     * @param keyPrefix 统计key的前缀
+     * @param ids       文章/用户id
+     * @return id -> 计数hash
+     */
+    private Map<Long, Map<String, Integer>> batchQueryStatistic(String keyPrefix, Collection<Long> ids) {
+        if (CollectionUtils.isEmpty(ids)) {
+            return Collections.emptyMap();
+        }
+
+        List<Long> idList = ids.stream().distinct().collect(Collectors.toList());
+        List<String> keys = idList.stream().map(id -> keyPrefix + id).collect(Collectors.toList());
+        Map<String, Map<String, Integer>> records = RedisClient.batchHGetAll(keys, Integer.class);
+        Map<Long, Map<String, Integer>> result = Maps.newHashMapWithExpectedSize(idList.size());
+        for (int i = 0; i < idList.size(); i++) {
+            result.put(idList.get(i), records.getOrDefault(keys.get(i), Collections.emptyMap()));
+        }
+        return result;
+    }
+
     @Override
     public void incrArticleReadCount(Long authorUserId, Long articleId) {
-        // db层的计数+1
-        articleDao.incrReadCount(articleId);
+        // db层的计数+1，先写入缓冲，定时批量刷新到db
+        readCountBuffer.incr(articleId);
         // redis计数器 +1
         RedisClient.pipelineAction()
                 .add(CountConstants.ARTICLE_STATISTIC_INFO + articleId, CountConstants.READ_COUNT,
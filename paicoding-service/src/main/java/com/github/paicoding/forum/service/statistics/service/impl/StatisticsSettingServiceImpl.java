@@ -5,9 +5,9 @@ import com.github.paicoding.forum.api.model.vo.statistics.dto.StatisticsDayDTO;
 import com.github.paicoding.forum.api.model.vo.user.dto.UserFootStatisticDTO;
 import com.github.paicoding.forum.service.article.service.ArticleReadService;
 import com.github.paicoding.forum.service.article.service.ColumnService;
-import com.github.paicoding.forum.service.statistics.repository.entity.RequestCountDO;
 import com.github.paicoding.forum.service.statistics.service.RequestCountService;
 import com.github.paicoding.forum.service.statistics.service.StatisticsSettingService;
+import com.github.paicoding.forum.service.statistics.service.help.RequestCountBuffer;
 import com.github.paicoding.forum.service.user.service.UserFootService;
 import com.github.paicoding.forum.service.user.service.UserService;
 import com.github.paicoding.forum.service.user.service.conf.AiConfig;
@@ -31,6 +31,9 @@ public class StatisticsSettingServiceImpl implements StatisticsSettingService {
     @Autowired
     private RequestCountService requestCountService;
 
+    @Autowired
+    private RequestCountBuffer requestCountBuffer;
+
     @Autowired
     private UserService userService;
 
@@ -48,13 +51,8 @@ public class StatisticsSettingServiceImpl implements StatisticsSettingService {
 
     @Override
     public void saveRequestCount(String host) {
-        RequestCountDO requestCountDO = requestCountService.getRequestCount(host);
-        if (requestCountDO == null) {
-            requestCountService.insert(host);
-        } else {
-            // 改为数据库直接更新
-            requestCountService.incrementCount(requestCountDO.getId());
-        }
+        // 只在内存中累加，由 RequestCountBuffer 定时批量写入db
+        requestCountBuffer.incr(host);
     }
 
     @Override
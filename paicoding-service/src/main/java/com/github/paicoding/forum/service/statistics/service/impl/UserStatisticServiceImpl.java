@@ -1,6 +1,10 @@
 package com.github.paicoding.forum.service.statistics.service.impl;
 
 import com.github.paicoding.forum.service.statistics.service.UserStatisticService;
+import com.github.paicoding.forum.service.statistics.service.help.ClusterOnlineCounter;
+import com.github.paicoding.forum.service.statistics.service.help.OnlineDeviceWindow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.atomic.AtomicInteger;
@@ -13,6 +17,21 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 @Service
 public class UserStatisticServiceImpl implements UserStatisticService {
+    /**
+     * 在线人数统计方式: session 按 HttpSession 的创建/销毁计数; window 按设备最近的访问时间统计，不创建 session;
+     * cluster 与 window 相同，但访问时间记录在 redis 中，统计的是整个集群的在线人数
+     */
+    @Value("${paicoding.online.mode:session}")
+    private String onlineMode;
+
+    @Autowired
+    private OnlineDeviceWindow onlineDeviceWindow;
+
+    /**
+     * 仅 cluster 模式下存在
+     */
+    @Autowired(required = false)
+    private ClusterOnlineCounter clusterOnlineCounter;
 
     /**
      * 对于单机的场景，可以直接使用本地局部变量来实现计数
@@ -30,12 +49,27 @@ public class UserStatisticServiceImpl implements UserStatisticService {
         return onlineUserCnt.addAndGet(add);
     }
 
+    @Override
+    public void onlineVisit(String deviceId) {
+        if (ONLINE_MODE_CLUSTER.equals(onlineMode)) {
+            clusterOnlineCounter.visit(deviceId);
+        } else {
+            onlineDeviceWindow.visit(deviceId);
+        }
+    }
+
     /**
      * 查询在线用户人数
      *
      * @return
      */
     public int getOnlineUserCnt() {
+        if (ONLINE_MODE_CLUSTER.equals(onlineMode)) {
+            return (int) clusterOnlineCounter.count();
+        }
+        if (ONLINE_MODE_WINDOW.equals(onlineMode)) {
+            return onlineDeviceWindow.online();
+        }
         return onlineUserCnt.get();
     }
 
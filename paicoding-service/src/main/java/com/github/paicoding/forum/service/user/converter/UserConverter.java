@@ -71,6 +71,13 @@ public class UserConverter {
         return user;
     }
 
+    public static SimpleUserInfoDTO toSimpleInfo(BaseUserInfoDTO info) {
+        return new SimpleUserInfoDTO().setUserId(info.getUserId())
+                .setName(info.getUserName())
+                .setAvatar(info.getPhoto())
+                .setProfile(info.getProfile());
+    }
+
     public static SimpleUserInfoDTO toSimpleInfo(UserInfoDO info) {
         return new SimpleUserInfoDTO().setUserId(info.getUserId())
                 .setName(info.getUserName())
@@ -13,6 +13,7 @@ import com.github.paicoding.forum.service.user.repository.entity.UserFootDO;
 import com.github.paicoding.forum.service.user.repository.mapper.UserFootMapper;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,11 +39,11 @@ public class UserFootDao extends ServiceImpl<UserFootMapper, UserFootDO> {
      * 查询用户收藏的文章列表
      *
      * @param userId
-     * @param pageParam
+     * @param pageParam 基于游标翻页时，游标为 (更新时间, 主键)
      * @return
      */
-    public List<Long> listCollectedArticlesByUserId(Long userId, PageParam pageParam) {
-        return baseMapper.listCollectedArticlesByUserId(userId, pageParam);
+    public List<UserFootDO> listCollectedArticlesByUserId(Long userId, PageParam pageParam) {
+        return baseMapper.listCollectedArticlesByUserId(userId, pageParam, cursorTime(pageParam));
     }
 
 
@@ -50,11 +51,18 @@ public class UserFootDao extends ServiceImpl<UserFootMapper, UserFootDO> {
      * 查询用户阅读的文章列表
      *
      * @param userId
-     * @param pageParam
+     * @param pageParam 基于游标翻页时，游标为 (更新时间, 主键)
      * @return
      */
-    public List<Long> listReadArticleByUserId(Long userId, PageParam pageParam) {
-        return baseMapper.listReadArticleByUserId(userId, pageParam);
+    public List<UserFootDO> listReadArticleByUserId(Long userId, PageParam pageParam) {
+        return baseMapper.listReadArticleByUserId(userId, pageParam, cursorTime(pageParam));
+    }
+
+    private Date cursorTime(PageParam pageParam) {
+        if (pageParam == null || pageParam.getCursor() == null || pageParam.getCursor().getSorts().size() != 1) {
+            return null;
+        }
+        return new Date(pageParam.getCursor().getSorts().get(0));
     }
 
     /**
@@ -8,6 +8,7 @@ import com.github.paicoding.forum.api.model.vo.user.dto.UserFootStatisticDTO;
 import com.github.paicoding.forum.service.user.repository.entity.UserFootDO;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -47,9 +48,12 @@ public interface UserFootMapper extends BaseMapper<UserFootDO> {
      *
      * @param userId
      * @param pageParam
-     * @return
+     * @param cursorTime 基于游标翻页时，游标中的 update_time
+     * @return 只包含主键、文章id与更新时间
      */
-    List<Long> listCollectedArticlesByUserId(@Param("userId") Long userId, @Param("pageParam") PageParam pageParam);
+    List<UserFootDO> listCollectedArticlesByUserId(@Param("userId") Long userId,
+                                                   @Param("pageParam") PageParam pageParam,
+                                                   @Param("cursorTime") Date cursorTime);
 
 
     /**
@@ -57,9 +61,12 @@ public interface UserFootMapper extends BaseMapper<UserFootDO> {
      *
      * @param userId
      * @param pageParam
-     * @return
+     * @param cursorTime 基于游标翻页时，游标中的 update_time
+     * @return 只包含主键、文章id与更新时间
      */
-    List<Long> listReadArticleByUserId(@Param("userId") Long userId, @Param("pageParam") PageParam pageParam);
+    List<UserFootDO> listReadArticleByUserId(@Param("userId") Long userId,
+                                             @Param("pageParam") PageParam pageParam,
+                                             @Param("cursorTime") Date cursorTime);
 
     /**
      * 查询文章的点赞列表
@@ -55,18 +55,18 @@ public interface UserFootService {
      *
      * @param userId
      * @param pageParam
-     * @return
+     * @return 阅读/收藏记录，只包含主键、文章id与更新时间
      */
-    List<Long> queryUserReadArticleList(Long userId, PageParam pageParam);
+    List<UserFootDO> queryUserReadArticleList(Long userId, PageParam pageParam);
 
     /**
      * 查询收藏文章列表
      *
      * @param userId
      * @param pageParam
-     * @return
+     * @return 阅读/收藏记录，只包含主键、文章id与更新时间
      */
-    List<Long> queryUserCollectionArticleList(Long userId, PageParam pageParam);
+    List<UserFootDO> queryUserCollectionArticleList(Long userId, PageParam pageParam);
 
     /**
      * 查询文章的点赞用户信息
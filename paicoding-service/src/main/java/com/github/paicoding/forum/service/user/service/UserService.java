@@ -9,6 +9,7 @@ import com.github.paicoding.forum.service.user.repository.entity.UserDO;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户Service接口
@@ -58,14 +59,21 @@ public interface UserService {
     SimpleUserInfoDTO querySimpleUserInfo(Long userId);
 
     /**
-     * 查询用户基本信息
-     * todo: 可以做缓存优化
+     * 查询用户基本信息，优先走本地缓存
      *
      * @param userId
      * @return
      */
     BaseUserInfoDTO queryBasicUserInfo(Long userId);
 
+    /**
+     * 批量查询用户基本信息，未命中缓存的用户合并为一次db查询，用于列表、评论的渲染
+     *
+     * @param userIds
+     * @return userId -> 用户信息，不存在的用户不返回
+     */
+    Map<Long, BaseUserInfoDTO> queryBasicUserInfoMap(Collection<Long> userIds);
+
 
     /**
      * 批量查询用户基本信息
@@ -0,0 +1,144 @@
+package com.github.paicoding.forum.service.user.service.help;
+
+import com.github.paicoding.forum.api.model.vo.user.dto.BaseUserInfoDTO;
+import com.github.paicoding.forum.core.dal.DsSelectExecutor;
+import com.github.paicoding.forum.core.dal.MasterSlaveDsEnum;
+import com.github.paicoding.forum.service.user.converter.UserConverter;
+import com.github.paicoding.forum.service.user.repository.dao.UserDao;
+import com.github.paicoding.forum.service.user.repository.entity.UserInfoDO;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户基本信息加载器
+ * <p>
+ * - 列表渲染时先收集所有的用户id，未命中本地缓存的部分合并为一次 in 查询
+ * - 本地缓存有上限，用户资料更新时主动失效，多节点部署时依赖有效期兜底
+ * - 未命中时固定从主库加载：调用方可能处于 @DsAno(SLAVE) 的查询中，从库延迟时会把资料更新前的旧数据缓存到有效期结束
+ * - 缓存命中率、批量查询的大小通过 actuator 的 metrics 查看
+ * <p>
+ * 注意：返回的用户信息为共享的缓存对象，使用方只读不写
+ *
+ * @author YiHui
+ * @date 2024/3/9
+ */
+@Component
+public class UserInfoLoader {
+    private static final String METRIC_NAME = "paicoding.user.loader";
+
+    private final UserDao userDao;
+
+    private Cache<Long, BaseUserInfoDTO> userCache;
+
+    private DistributionSummary batchSize;
+
+    public UserInfoLoader(UserDao userDao) {
+        this.userDao = userDao;
+    }
+
+    @PostConstruct
+    public void init() {
+        userCache = CacheBuilder.newBuilder()
+                .maximumSize(5000)
+                .expireAfterWrite(5, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(Metrics.globalRegistry, userCache, "userInfo");
+        Metrics.gauge(METRIC_NAME + ".hit.ratio", userCache, cache -> cache.stats().hitRate());
+        batchSize = DistributionSummary.builder(METRIC_NAME + ".batch.size")
+                .description("每次db查询的用户数")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 加载单个用户
+     *
+     * @param userId
+     * @return 用户不存在时返回null
+     */
+    public BaseUserInfoDTO load(Long userId) {
+        return loadAll(Collections.singletonList(userId)).get(userId);
+    }
+
+    /**
+     * 批量加载用户，未命中缓存的用户通过一次 in 查询获取
+     *
+     * @param userIds
+     * @return userId -> 用户信息，保持传入的顺序，不存在的用户不返回
+     */
+    public Map<Long, BaseUserInfoDTO> loadAll(Collection<Long> userIds) {
+        if (CollectionUtils.isEmpty(userIds)) {
+            return Collections.emptyMap();
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+        Map<Long, BaseUserInfoDTO> cached = userCache.getAllPresent(ids);
+        Map<Long, BaseUserInfoDTO> loaded = Collections.emptyMap();
+        if (cached.size() < ids.size()) {
+            List<Long> missIds = new ArrayList<>(ids.size() - cached.size());
+            ids.forEach(id -> {
+                if (!cached.containsKey(id)) {
+                    missIds.add(id);
+                }
+            });
+            loaded = queryFromDb(missIds);
+        }
+
+        Map<Long, BaseUserInfoDTO> result = new LinkedHashMap<>(ids.size());
+        for (Long id : ids) {
+            BaseUserInfoDTO user = cached.get(id);
+            if (user == null) {
+                user = loaded.get(id);
+            }
+            if (user != null) {
+                result.put(id, user);
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, BaseUserInfoDTO> queryFromDb(List<Long> userIds) {
+        batchSize.record(userIds.size());
+        List<UserInfoDO> users = DsSelectExecutor.submit(MasterSlaveDsEnum.MASTER,
+                () -> userIds.size() == 1 ? Collections.singletonList(userDao.getByUserId(userIds.get(0)))
+                        : userDao.getByUserIds(userIds));
+        Map<Long, BaseUserInfoDTO> result = new LinkedHashMap<>(users.size());
+        for (UserInfoDO user : users) {
+            if (user == null) {
+                continue;
+            }
+            BaseUserInfoDTO dto = UserConverter.toDTO(user);
+            result.put(user.getUserId(), dto);
+            userCache.put(user.getUserId(), dto);
+        }
+        return result;
+    }
+
+    /**
+     * 用户资料变更时，失效本地缓存
+     *
+     * @param userId
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            userCache.invalidate(userId);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.github.paicoding.forum.service.user.service.relation;
 import com.github.paicoding.forum.api.model.context.ReqInfoContext;
 import com.github.paicoding.forum.api.model.enums.FollowStateEnum;
 import com.github.paicoding.forum.api.model.enums.NotifyTypeEnum;
+import com.github.paicoding.forum.api.model.vo.PageCursor;
 import com.github.paicoding.forum.api.model.vo.PageListVo;
 import com.github.paicoding.forum.api.model.vo.PageParam;
 import com.github.paicoding.forum.api.model.vo.notify.NotifyMsgEvent;
@@ -43,13 +44,13 @@ public class UserRelationServiceImpl implements UserRelationService {
     @Override
     public PageListVo<FollowUserInfoDTO> getUserFollowList(Long userId, PageParam pageParam) {
         List<FollowUserInfoDTO> userRelationList = userRelationDao.listUserFollows(userId, pageParam);
-        return PageListVo.newVo(userRelationList, pageParam.getPageSize());
+        return PageListVo.newVo(userRelationList, pageParam.getPageSize(), r -> PageCursor.of(r.getRelationId()));
     }
 
     @Override
     public PageListVo<FollowUserInfoDTO> getUserFansList(Long userId, PageParam pageParam) {
         List<FollowUserInfoDTO> userRelationList = userRelationDao.listUserFans(userId, pageParam);
-        return PageListVo.newVo(userRelationList, pageParam.getPageSize());
+        return PageListVo.newVo(userRelationList, pageParam.getPageSize(), r -> PageCursor.of(r.getRelationId()));
     }
 
     @Override
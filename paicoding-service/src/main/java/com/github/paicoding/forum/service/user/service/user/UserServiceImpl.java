@@ -9,6 +9,8 @@ import com.github.paicoding.forum.api.model.vo.user.UserPwdLoginReq;
 import com.github.paicoding.forum.api.model.vo.user.dto.BaseUserInfoDTO;
 import com.github.paicoding.forum.api.model.vo.user.dto.SimpleUserInfoDTO;
 import com.github.paicoding.forum.api.model.vo.user.dto.UserStatisticInfoDTO;
+import com.github.paicoding.forum.core.dal.DsAno;
+import com.github.paicoding.forum.core.dal.MasterSlaveDsEnum;
 import com.github.paicoding.forum.core.util.IpUtil;
 import com.github.paicoding.forum.service.article.repository.dao.ArticleDao;
 import com.github.paicoding.forum.service.statistics.service.CountService;
@@ -23,6 +25,7 @@ import com.github.paicoding.forum.service.user.repository.entity.UserInfoDO;
 import com.github.paicoding.forum.service.user.repository.entity.UserRelationDO;
 import com.github.paicoding.forum.service.user.service.UserAiService;
 import com.github.paicoding.forum.service.user.service.UserService;
+import com.github.paicoding.forum.service.user.service.help.UserInfoLoader;
 import com.github.paicoding.forum.service.user.service.help.UserPwdEncoder;
 import com.github.paicoding.forum.service.user.service.help.UserSessionHelper;
 import org.apache.commons.lang3.StringUtils;
@@ -32,9 +35,11 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -71,11 +76,15 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserAiService userAiService;
 
+    @Autowired
+    private UserInfoLoader userInfoLoader;
+
     @Override
     public UserDO getWxUser(String wxuuid) {
         return userDao.getByThirdAccountId(wxuuid);
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public List<SimpleUserInfoDTO> searchUser(String userName) {
         List<UserInfoDO> users = userDao.getByUserNameLike(userName);
@@ -95,6 +104,7 @@ public class UserServiceImpl implements UserService {
     public void saveUserInfo(UserInfoSaveReq req) {
         UserInfoDO userInfoDO = UserConverter.toDO(req);
         userDao.updateUserInfo(userInfoDO);
+        userInfoLoader.invalidate(userInfoDO.getUserId());
     }
 
     @Override
@@ -125,6 +135,7 @@ public class UserServiceImpl implements UserService {
                 ip.setFirstRegion(ip.getLatestRegion());
             }
             userDao.updateById(user);
+            userInfoLoader.invalidate(userId);
         }
 
         // 查询 user_ai信息，标注用户是否为星球专属用户
@@ -133,38 +144,36 @@ public class UserServiceImpl implements UserService {
     }
 
     public SimpleUserInfoDTO querySimpleUserInfo(Long userId) {
-        UserInfoDO user = userDao.getByUserId(userId);
-        if (user == null) {
-            throw ExceptionUtil.of(StatusEnum.USER_NOT_EXISTS, "userId=" + userId);
-        }
-        return UserConverter.toSimpleInfo(user);
+        return UserConverter.toSimpleInfo(queryBasicUserInfo(userId));
     }
 
     @Override
     public BaseUserInfoDTO queryBasicUserInfo(Long userId) {
-        UserInfoDO user = userDao.getByUserId(userId);
+        BaseUserInfoDTO user = userInfoLoader.load(userId);
         if (user == null) {
             throw ExceptionUtil.of(StatusEnum.USER_NOT_EXISTS, "userId=" + userId);
         }
-        return UserConverter.toDTO(user);
+        return user;
+    }
+
+    @Override
+    public Map<Long, BaseUserInfoDTO> queryBasicUserInfoMap(Collection<Long> userIds) {
+        return userInfoLoader.loadAll(userIds);
     }
 
     public List<SimpleUserInfoDTO> batchQuerySimpleUserInfo(Collection<Long> userIds) {
-        List<UserInfoDO> users = userDao.getByUserIds(userIds);
-        if (CollectionUtils.isEmpty(users)) {
-            throw ExceptionUtil.of(StatusEnum.USER_NOT_EXISTS, "userId=" + userIds);
-        }
-        return users.stream().map(UserConverter::toSimpleInfo).collect(Collectors.toList());
+        return batchQueryBasicUserInfo(userIds).stream().map(UserConverter::toSimpleInfo).collect(Collectors.toList());
     }
 
     public List<BaseUserInfoDTO> batchQueryBasicUserInfo(Collection<Long> userIds) {
-        List<UserInfoDO> users = userDao.getByUserIds(userIds);
+        Map<Long, BaseUserInfoDTO> users = userInfoLoader.loadAll(userIds);
         if (CollectionUtils.isEmpty(users)) {
             throw ExceptionUtil.of(StatusEnum.USER_NOT_EXISTS, "userId=" + userIds);
         }
-        return users.stream().map(UserConverter::toDTO).collect(Collectors.toList());
+        return new ArrayList<>(users.values());
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public UserStatisticInfoDTO queryUserInfoWithStatistic(Long userId) {
         BaseUserInfoDTO userInfoDTO = queryBasicUserInfo(userId);
@@ -204,6 +213,7 @@ public class UserServiceImpl implements UserService {
         return userHomeDTO;
     }
 
+    @DsAno(MasterSlaveDsEnum.SLAVE)
     @Override
     public Long getUserCount() {
         return this.userDao.getUserCount();
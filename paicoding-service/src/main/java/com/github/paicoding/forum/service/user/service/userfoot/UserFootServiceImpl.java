@@ -129,12 +129,12 @@ public class UserFootServiceImpl implements UserFootService {
     }
 
     @Override
-    public List<Long> queryUserReadArticleList(Long userId, PageParam pageParam) {
+    public List<UserFootDO> queryUserReadArticleList(Long userId, PageParam pageParam) {
         return userFootDao.listReadArticleByUserId(userId, pageParam);
     }
 
     @Override
-    public List<Long> queryUserCollectionArticleList(Long userId, PageParam pageParam) {
+    public List<UserFootDO> queryUserCollectionArticleList(Long userId, PageParam pageParam) {
         return userFootDao.listCollectedArticlesByUserId(userId, pageParam);
     }
 
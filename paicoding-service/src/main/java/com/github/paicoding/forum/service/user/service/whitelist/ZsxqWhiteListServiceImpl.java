@@ -17,6 +17,7 @@ import com.github.paicoding.forum.service.user.repository.entity.UserDO;
 import com.github.paicoding.forum.service.user.repository.entity.UserInfoDO;
 import com.github.paicoding.forum.service.user.repository.params.SearchZsxqWhiteParams;
 import com.github.paicoding.forum.service.user.service.ZsxqWhiteListService;
+import com.github.paicoding.forum.service.user.service.help.UserInfoLoader;
 import com.github.paicoding.forum.service.user.service.help.UserPwdEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -40,6 +41,9 @@ public class ZsxqWhiteListServiceImpl implements ZsxqWhiteListService {
     @Autowired
     private UserPwdEncoder userPwdEncoder;
 
+    @Autowired
+    private UserInfoLoader userInfoLoader;
+
     @Override
     public PageVo<ZsxqUserInfoDTO> getList(SearchZsxqUserReq req) {
         SearchZsxqWhiteParams  params = UserStructMapper.INSTANCE.toSearchParams(req);
@@ -99,6 +103,7 @@ public class ZsxqWhiteListServiceImpl implements ZsxqWhiteListService {
         userInfoDO.setId(userAiDO.getUserId());
         userInfoDO.setUserName(req.getName());
         userDao.updateById(userInfoDO);
+        userInfoLoader.invalidate(userAiDO.getUserId());
 
         // 更新星球编号
         userAiDO.setStarNumber(req.getStarNumber());
@@ -94,6 +94,10 @@ const doGetNextPage = function (url, params, listId, btnId, callback) {
         console.log("response: ", data)
         const result = data.result
         $(`#${listId}`).append(result.html)
+        if (result.cursor) {
+            // 后端返回了游标时，下一页基于游标查询
+            params["cursor"] = result.cursor
+        }
         if (!result.hasMore) {
             $(`#${btnId}`).hide()
         } else {
@@ -116,6 +120,10 @@ const doGetNextPageText = function (
         console.log("response: ", data)
         const result = data.result
         $(`#${listId}`).append(result.html)
+        if (result.cursor) {
+            // 后端返回了游标时，下一页基于游标查询
+            params["cursor"] = result.cursor
+        }
         if (!result.hasMore) {
             callback(false)
         }
@@ -0,0 +1,54 @@
+package com.github.paicoding.forum.web.admin.rest;
+
+import com.github.paicoding.forum.api.model.vo.ResVo;
+import com.github.paicoding.forum.api.model.vo.statistics.dto.SqlStatDTO;
+import com.github.paicoding.forum.core.dal.SqlStatistics;
+import com.github.paicoding.forum.core.permission.Permission;
+import com.github.paicoding.forum.core.permission.UserRole;
+import io.swagger.annotations.Api;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * sql执行统计后台，统计的是当前节点自启动以来的数据；未开启多数据源时没有sql统计，返回空列表
+ *
+ * @author YiHui
+ * @date 2024/4/5
+ */
+@RestController
+@Permission(role = UserRole.ADMIN)
+@Api(value = "sql执行统计控制器", tags = "统计分析")
+@RequestMapping(path = {"api/admin/sql/", "admin/sql/"})
+public class SqlStatRestController {
+    static final Integer DEFAULT_SIZE = 10;
+
+    private final ObjectProvider<SqlStatistics> sqlStatistics;
+
+    public SqlStatRestController(ObjectProvider<SqlStatistics> sqlStatistics) {
+        this.sqlStatistics = sqlStatistics;
+    }
+
+    /**
+     * 平均耗时最高的sql
+     */
+    @GetMapping(path = "slow")
+    public ResVo<List<SqlStatDTO>> slow(@RequestParam(name = "size", required = false) Integer size) {
+        SqlStatistics statistics = sqlStatistics.getIfAvailable();
+        return ResVo.ok(statistics == null ? Collections.emptyList() : statistics.topSlow(size == null ? DEFAULT_SIZE : size));
+    }
+
+    /**
+     * 执行次数最多的sql
+     */
+    @GetMapping(path = "frequent")
+    public ResVo<List<SqlStatDTO>> frequent(@RequestParam(name = "size", required = false) Integer size) {
+        SqlStatistics statistics = sqlStatistics.getIfAvailable();
+        return ResVo.ok(statistics == null ? Collections.emptyList() : statistics.topFrequent(size == null ? DEFAULT_SIZE : size));
+    }
+}
@@ -29,33 +29,39 @@ public class ArticleListRestController extends BaseViewController {
      * 分类下的文章列表
      *
      * @param categoryId
+     * @param page       页数，兼容按页翻页
+     * @param size
+     * @param cursor     上一页返回的游标，传了游标时忽略页数
      * @return
      */
     @GetMapping(path = "category/{category}")
     public ResVo<NextPageHtmlVo> categoryList(@PathVariable("category") Long categoryId,
-                                              @RequestParam(name = "page") Long page,
-                                              @RequestParam(name = "size", required = false) Long size) {
-        PageParam pageParam = buildPageParam(page, size);
+                                              @RequestParam(name = "page", required = false) Long page,
+                                              @RequestParam(name = "size", required = false) Long size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
+        PageParam pageParam = buildPageParam(page, size, cursor);
         PageListVo<ArticleDTO> list = articleService.queryArticlesByCategory(categoryId, pageParam);
         String html = templateEngineHelper.renderToVo("views/article-category-list/article/list", "articles", list);
-        return ResVo.ok(new NextPageHtmlVo(html, list.getHasMore()));
+        return ResVo.ok(new NextPageHtmlVo(html, list.getHasMore(), list.getCursor()));
     }
 
     /**
      * 标签下的文章列表
      *
      * @param tagId
-     * @param page
+     * @param page   页数，兼容按页翻页
      * @param size
+     * @param cursor 上一页返回的游标，传了游标时忽略页数
      * @return
      */
     @GetMapping(path = "tag/{tag}")
     public ResVo<NextPageHtmlVo> tagList(@PathVariable("tag") Long tagId,
-                                         @RequestParam(name = "page") Long page,
-                                         @RequestParam(name = "size", required = false) Long size) {
-        PageParam pageParam = buildPageParam(page, size);
+                                         @RequestParam(name = "page", required = false) Long page,
+                                         @RequestParam(name = "size", required = false) Long size,
+                                         @RequestParam(name = "cursor", required = false) String cursor) {
+        PageParam pageParam = buildPageParam(page, size, cursor);
         PageListVo<ArticleDTO> list = articleService.queryArticlesByTag(tagId, pageParam);
         String html = templateEngineHelper.renderToVo("views/article-tag-list/article/list", "articles", list);
-        return ResVo.ok(new NextPageHtmlVo(html, list.getHasMore()));
+        return ResVo.ok(new NextPageHtmlVo(html, list.getHasMore(), list.getCursor()));
     }
 }
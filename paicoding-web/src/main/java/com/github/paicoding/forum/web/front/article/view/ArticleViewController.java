@@ -10,10 +10,10 @@ import com.github.paicoding.forum.api.model.vo.recommend.SideBarDTO;
 import com.github.paicoding.forum.api.model.vo.user.dto.UserStatisticInfoDTO;
 import com.github.paicoding.forum.core.permission.Permission;
 import com.github.paicoding.forum.core.permission.UserRole;
-import com.github.paicoding.forum.core.util.MarkdownConverter;
 import com.github.paicoding.forum.core.util.SpringUtil;
 import com.github.paicoding.forum.service.article.repository.entity.ColumnArticleDO;
 import com.github.paicoding.forum.service.article.service.ArticleReadService;
+import com.github.paicoding.forum.service.article.service.ArticleRenderService;
 import com.github.paicoding.forum.service.article.service.CategoryService;
 import com.github.paicoding.forum.service.article.service.ColumnService;
 import com.github.paicoding.forum.service.article.service.TagService;
@@ -55,6 +55,9 @@ public class ArticleViewController extends BaseViewController {
     @Autowired
     private ArticleReadService articleService;
 
+    @Autowired
+    private ArticleRenderService articleRenderService;
+
     @Autowired
     private CategoryService categoryService;
 
@@ -128,7 +131,7 @@ public class ArticleViewController extends BaseViewController {
         // 文章相关信息
         ArticleDTO articleDTO = articleService.queryFullArticleInfo(articleId, ReqInfoContext.getReqInfo().getUserId());
         // 返回给前端页面时，转换为html格式
-        articleDTO.setContent(MarkdownConverter.markdownToHtml(articleDTO.getContent()));
+        articleDTO.setContent(articleRenderService.renderHtml(articleDTO));
         vo.setArticle(articleDTO);
 
         // 评论信息
@@ -9,10 +9,10 @@ import com.github.paicoding.forum.api.model.vo.PageParam;
 import com.github.paicoding.forum.api.model.vo.article.dto.*;
 import com.github.paicoding.forum.api.model.vo.comment.dto.TopCommentDTO;
 import com.github.paicoding.forum.api.model.vo.recommend.SideBarDTO;
-import com.github.paicoding.forum.core.util.MarkdownConverter;
 import com.github.paicoding.forum.core.util.SpringUtil;
 import com.github.paicoding.forum.service.article.repository.entity.ColumnArticleDO;
 import com.github.paicoding.forum.service.article.service.ArticleReadService;
+import com.github.paicoding.forum.service.article.service.ArticleRenderService;
 import com.github.paicoding.forum.service.article.service.ColumnService;
 import com.github.paicoding.forum.service.comment.service.CommentReadService;
 import com.github.paicoding.forum.service.sidebar.service.SidebarService;
@@ -43,6 +43,9 @@ public class ColumnViewController {
     @Autowired
     private ArticleReadService articleReadService;
 
+    @Autowired
+    private ArticleRenderService articleRenderService;
+
     @Autowired
     private CommentReadService commentReadService;
 
@@ -102,7 +105,7 @@ public class ColumnViewController {
         // 文章信息
         ArticleDTO articleDTO = articleReadService.queryFullArticleInfo(articleId, ReqInfoContext.getReqInfo().getUserId());
         // 返回html格式的文档内容
-        articleDTO.setContent(MarkdownConverter.markdownToHtml(articleDTO.getContent()));
+        articleDTO.setContent(articleRenderService.renderHtml(articleDTO));
         // 评论信息
         List<TopCommentDTO> comments = commentReadService.getArticleComments(articleId, PageParam.newPageInstance());
 
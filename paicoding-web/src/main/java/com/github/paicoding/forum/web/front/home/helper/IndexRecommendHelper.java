@@ -9,6 +9,7 @@ import com.github.paicoding.forum.api.model.vo.article.dto.CategoryDTO;
 import com.github.paicoding.forum.api.model.vo.banner.dto.ConfigDTO;
 import com.github.paicoding.forum.api.model.vo.recommend.CarouseDTO;
 import com.github.paicoding.forum.api.model.vo.user.dto.UserStatisticInfoDTO;
+import com.github.paicoding.forum.core.async.AsyncPoolEnum;
 import com.github.paicoding.forum.core.async.AsyncUtil;
 import com.github.paicoding.forum.core.common.CommonConstants;
 import com.github.paicoding.forum.service.article.service.ArticleReadService;
@@ -55,7 +56,7 @@ public class IndexRecommendHelper {
         vo.setCategoryId(category.getCategoryId());
         vo.setCurrentCategory(category.getCategory());
         // 并行调度实例，提高响应性能
-        AsyncUtil.concurrentExecutor("首页响应")
+        AsyncUtil.concurrentExecutor(AsyncPoolEnum.PAGE, "首页响应")
                 .runAsyncWithTimeRecord(() -> vo.setArticles(articleList(category.getCategoryId())), "文章列表")
                 .runAsyncWithTimeRecord(() -> vo.setTopArticles(topArticleList(category)), "置顶文章")
                 .runAsyncWithTimeRecord(() -> vo.setHomeCarouselList(homeCarouselList()), "轮播图")
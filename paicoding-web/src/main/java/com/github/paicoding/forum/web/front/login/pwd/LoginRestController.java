@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 import java.io.IOException;
 import java.util.Optional;
 
@@ -70,7 +71,7 @@ public class LoginRestController {
     @RequestMapping("logout")
     public ResVo<Boolean> logOut(HttpServletRequest request, HttpServletResponse response) throws IOException {
         // 释放会话
-        request.getSession().invalidate();
+        Optional.ofNullable(request.getSession(false)).ifPresent(HttpSession::invalidate);
         Optional.ofNullable(ReqInfoContext.getReqInfo()).ifPresent(s -> loginService.logout(s.getSession()));
         // 移除cookie
         response.addCookie(SessionUtil.delCookie(LoginService.SESSION_KEY));
@@ -1,6 +1,7 @@
 package com.github.paicoding.forum.web.global;
 
 import com.github.paicoding.forum.api.model.vo.PageParam;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -23,6 +24,24 @@ public class BaseViewController {
         return PageParam.newPageInstance(page, size);
     }
 
+    /**
+     * 分页参数，传了游标时基于游标查询下一页，否则按照页数查询
+     *
+     * @param page
+     * @param size
+     * @param cursor 上一页返回的游标
+     * @return
+     */
+    public PageParam buildPageParam(Long page, Long size, String cursor) {
+        if (StringUtils.isBlank(cursor)) {
+            return buildPageParam(page == null ? PageParam.DEFAULT_PAGE_NUM : page, size);
+        }
+        if (size == null || size > PageParam.DEFAULT_PAGE_SIZE) {
+            size = PageParam.DEFAULT_PAGE_SIZE;
+        }
+        return PageParam.newCursorInstance(cursor, size);
+    }
+
 //
 //  推荐使用它替代 GlobalViewInterceptor 中的全局属性设置
 //    /**
@@ -8,6 +8,7 @@ import com.github.paicoding.forum.api.model.vo.user.dto.BaseUserInfoDTO;
 import com.github.paicoding.forum.core.util.NumUtil;
 import com.github.paicoding.forum.core.util.SessionUtil;
 import com.github.paicoding.forum.service.notify.service.NotifyService;
+import com.github.paicoding.forum.service.sitemap.model.SiteCntVo;
 import com.github.paicoding.forum.service.sitemap.service.SitemapService;
 import com.github.paicoding.forum.service.statistics.service.UserStatisticService;
 import com.github.paicoding.forum.service.user.service.LoginService;
@@ -17,6 +18,7 @@ import com.github.paicoding.forum.web.global.vo.GlobalVo;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -53,18 +55,35 @@ public class GlobalInitService {
     @Resource
     private SitemapService sitemapService;
 
+    /**
+     * true 表示在线人数、站点访问统计等与请求无关的全局属性，由后台定时刷新为快照，页面渲染时直接读取；登录用户、未读消息数等仍按请求计算
+     */
+    @Value("${paicoding.global.snapshot:true}")
+    private boolean snapshotEnable;
+
+    private volatile GlobalSnapshot snapshot;
+
     /**
      * 全局属性配置
      */
     public GlobalVo globalAttr() {
+        GlobalSnapshot global = snapshotEnable ? snapshot : null;
+        if (global == null) {
+            global = buildSnapshot();
+            if (snapshotEnable) {
+                snapshot = global;
+            }
+        }
+
         GlobalVo vo = new GlobalVo();
         vo.setEnv(env);
         vo.setSiteInfo(globalViewConfig);
-        vo.setOnlineCnt(userStatisticService.getOnlineUserCnt());
-        vo.setSiteStatisticInfo(sitemapService.querySiteVisitInfo(null, null));
-        vo.setTodaySiteStatisticInfo(sitemapService.querySiteVisitInfo(LocalDate.now(), null));
+        vo.setOnlineCnt(global.onlineCnt);
+        vo.setSiteStatisticInfo(global.siteStatisticInfo);
+        vo.setTodaySiteStatisticInfo(global.todaySiteStatisticInfo);
 
         if (ReqInfoContext.getReqInfo() == null || ReqInfoContext.getReqInfo().getSeo() == null || CollectionUtils.isEmpty(ReqInfoContext.getReqInfo().getSeo().getOgp())) {
+            // 默认seo中包含当前请求的url，不能放入快照
             Seo seo = seoInjectService.defaultSeo();
             vo.setOgp(seo.getOgp());
             vo.setJsonLd(JSONUtil.toJsonStr(seo.getJsonLd()));
@@ -98,6 +117,39 @@ public class GlobalInitService {
         return vo;
     }
 
+    /**
+     * 定时刷新全局属性快照
+     */
+    @Scheduled(fixedDelayString = "${paicoding.global.refresh-interval:3000}")
+    public void refreshSnapshot() {
+        if (!snapshotEnable) {
+            return;
+        }
+        try {
+            snapshot = buildSnapshot();
+        } catch (Exception e) {
+            // 刷新失败时继续使用上一次的快照
+            log.warn("refresh global snapshot error!", e);
+        }
+    }
+
+    private GlobalSnapshot buildSnapshot() {
+        GlobalSnapshot global = new GlobalSnapshot();
+        global.onlineCnt = userStatisticService.getOnlineUserCnt();
+        global.siteStatisticInfo = sitemapService.querySiteVisitInfo(null, null);
+        global.todaySiteStatisticInfo = sitemapService.querySiteVisitInfo(LocalDate.now(), null);
+        return global;
+    }
+
+    /**
+     * 与请求无关的全局属性，创建后不再修改
+     */
+    private static class GlobalSnapshot {
+        private Integer onlineCnt;
+        private SiteCntVo siteStatisticInfo;
+        private SiteCntVo todaySiteStatisticInfo;
+    }
+
     /**
      * 初始化用户信息
      *
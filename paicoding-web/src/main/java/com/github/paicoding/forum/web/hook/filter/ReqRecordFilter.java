@@ -2,6 +2,7 @@ package com.github.paicoding.forum.web.hook.filter;
 
 import cn.hutool.core.date.StopWatch;
 import com.github.paicoding.forum.api.model.context.ReqInfoContext;
+import com.github.paicoding.forum.core.async.AsyncPoolEnum;
 import com.github.paicoding.forum.core.async.AsyncUtil;
 import com.github.paicoding.forum.core.mdc.MdcUtil;
 import com.github.paicoding.forum.core.util.CrossUtil;
@@ -11,6 +12,7 @@ import com.github.paicoding.forum.core.util.SessionUtil;
 import com.github.paicoding.forum.core.util.SpringUtil;
 import com.github.paicoding.forum.service.sitemap.service.impl.SitemapServiceImpl;
 import com.github.paicoding.forum.service.statistics.service.StatisticsSettingService;
+import com.github.paicoding.forum.service.statistics.service.UserStatisticService;
 import com.github.paicoding.forum.service.user.service.LoginService;
 import com.github.paicoding.forum.web.global.GlobalInitService;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +20,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
 
 import javax.servlet.Filter;
@@ -58,6 +61,12 @@ public class ReqRecordFilter implements Filter {
     @Autowired
     private StatisticsSettingService statisticsSettingService;
 
+    @Autowired
+    private UserStatisticService userStatisticService;
+
+    @Value("${paicoding.online.mode:session}")
+    private String onlineMode;
+
     @Override
     public void init(FilterConfig filterConfig) {
     }
@@ -109,9 +118,6 @@ public class ReqRecordFilter implements Filter {
             stopWatch.stop();
 
             stopWatch.start("请求基本信息");
-            // 手动写入一个session，借助 OnlineUserCountListener 实现在线人数实时统计
-            request.getSession().setAttribute("latestVisit", System.currentTimeMillis());
-
             ReqInfoContext.ReqInfo reqInfo = new ReqInfoContext.ReqInfo();
             reqInfo.setHost(request.getHeader("host"));
             reqInfo.setPath(request.getPathInfo());
@@ -127,6 +133,13 @@ public class ReqRecordFilter implements Filter {
             reqInfo.setClientIp(IpUtil.getClientIp(request));
             reqInfo.setUserAgent(request.getHeader("User-Agent"));
             reqInfo.setDeviceId(getOrInitDeviceId(request, response));
+            if (!UserStatisticService.ONLINE_MODE_SESSION.equals(onlineMode)) {
+                // 按设备记录访问时间统计在线人数，不创建 session
+                userStatisticService.onlineVisit(reqInfo.getDeviceId());
+            } else {
+                // 手动写入一个session，借助 OnlineUserCountListener 实现在线人数实时统计
+                request.getSession().setAttribute("latestVisit", System.currentTimeMillis());
+            }
 
             request = this.wrapperRequest(request, reqInfo);
             stopWatch.stop();
@@ -139,7 +152,7 @@ public class ReqRecordFilter implements Filter {
             ReqInfoContext.addReqInfo(reqInfo);
             stopWatch.start("pv/uv站点统计");
             // 更新uv/pv计数
-            AsyncUtil.execute(() -> SpringUtil.getBean(SitemapServiceImpl.class).saveVisitInfo(reqInfo.getClientIp(), reqInfo.getPath()));
+            AsyncUtil.execute(AsyncPoolEnum.VISIT, () -> SpringUtil.getBean(SitemapServiceImpl.class).saveVisitInfo(reqInfo.getClientIp(), reqInfo.getPath()));
             stopWatch.stop();
 
             stopWatch.start("回写traceId");
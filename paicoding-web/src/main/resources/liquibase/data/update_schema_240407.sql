@@ -0,0 +1,9 @@
+-- 游标翻页使用的联合索引，where (排序字段, id) < (游标) order by 排序字段 desc, id desc 可以直接走索引
+alter table `article` add index `idx_topping_create` (`topping_stat`, `create_time`);
+alter table `article` add index `idx_category_topping_create` (`category_id`, `topping_stat`, `create_time`);
+alter table `article` add index `idx_user_id` (`user_id`);
+alter table `user_foot` add index `idx_user_type_update` (`user_id`, `document_type`, `update_time`);
+alter table `user_relation` add index `idx_user_state` (`user_id`, `follow_state`);
+alter table `user_relation` add index `idx_follow_user_state` (`follow_user_id`, `follow_state`);
+-- idx_follow_user_state 已覆盖 follow_user_id 的前缀查询，原单列索引冗余
+alter table `user_relation` drop index `key_follow_user_id`;
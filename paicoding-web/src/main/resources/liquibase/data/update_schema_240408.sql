@@ -0,0 +1,4 @@
+-- 文章记录上保存当前正文版本号，查询正文时走 (article_id, version) 唯一索引点查
+alter table `article` add `detail_version` int unsigned NOT NULL DEFAULT '0' COMMENT '当前正文版本号，对应article_detail.version' after `cream_stat`;
+-- 存量数据回填最新版本号，显式保留 update_time，避免触发 on update current_timestamp
+update `article` a set a.`detail_version` = ifnull((select max(d.`version`) from `article_detail` d where d.`article_id` = a.`id` and d.`deleted` = 0), 0), a.`update_time` = a.`update_time`;
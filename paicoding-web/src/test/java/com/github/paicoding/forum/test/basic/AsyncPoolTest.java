@@ -0,0 +1,125 @@
+package com.github.paicoding.forum.test.basic;
+
+import com.github.paicoding.forum.api.model.context.ReqInfoContext;
+import com.github.paicoding.forum.core.async.AsyncPoolEnum;
+import com.github.paicoding.forum.core.async.AsyncProperties;
+import com.github.paicoding.forum.core.async.AsyncUtil;
+import com.github.paicoding.forum.core.async.MonitoredThreadPoolExecutor;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author YiHui
+ * @date 2024/4/9
+ */
+public class AsyncPoolTest {
+
+    @BeforeClass
+    public static void init() {
+        Metrics.addRegistry(new SimpleMeterRegistry());
+        AsyncProperties properties = new AsyncProperties();
+        properties.setBridgeDetail(true);
+        AsyncUtil.initExecutors(properties);
+    }
+
+    /**
+     * 线程复用时，任务拿到的是提交线程的请求上下文，而不是创建线程时继承的上下文
+     */
+    @Test
+    public void testContext() throws Exception {
+        ExecutorService executor = new MonitoredThreadPoolExecutor("test-ctx", 1, 10, false, Executors.defaultThreadFactory());
+        for (long user = 1; user <= 3; user++) {
+            ReqInfoContext.ReqInfo reqInfo = new ReqInfoContext.ReqInfo();
+            reqInfo.setUserId(user);
+            ReqInfoContext.addReqInfo(reqInfo);
+            Long ans = executor.submit(() -> ReqInfoContext.getReqInfo().getUserId()).get();
+            Assert.assertEquals(Long.valueOf(user), ans);
+        }
+
+        ReqInfoContext.clear();
+        Assert.assertNull(executor.submit(ReqInfoContext::getReqInfo).get());
+        executor.shutdown();
+    }
+
+    /**
+     * 队列未满时，也会先创建到最大线程数再排队
+     */
+    @Test
+    public void testMaxThreads() throws InterruptedException {
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(4);
+        ExecutorService executor = new MonitoredThreadPoolExecutor("test-max", 4, 100, false, Executors.defaultThreadFactory());
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        Assert.assertTrue(started.await(1, TimeUnit.SECONDS));
+        block.countDown();
+        executor.shutdown();
+    }
+
+    /**
+     * 线程池满时，丢弃任务并计数
+     */
+    @Test
+    public void testReject() throws InterruptedException {
+        CountDownLatch block = new CountDownLatch(1);
+        ExecutorService executor = new MonitoredThreadPoolExecutor("test-reject", 1, 1, true, Executors.defaultThreadFactory());
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        block.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+        Assert.assertEquals(3, Metrics.globalRegistry.get("paicoding.async.rejected").tag("pool", "test-reject").counter().count(), 0);
+        Assert.assertEquals(2, Metrics.globalRegistry.get("paicoding.async.task").tag("pool", "test-reject").timer().count());
+    }
+
+    /**
+     * 页面并发加载走独立的线程池
+     */
+    @Test
+    public void testPagePool() {
+        AsyncUtil.concurrentExecutor(AsyncPoolEnum.PAGE, "page")
+                .runAsyncWithTimeRecord(() -> Assert.assertTrue(Thread.currentThread().getName().startsWith("paicoding-page-")), "name")
+                .allExecuted()
+                .prettyPrint();
+        System.out.println(Metrics.globalRegistry.get("paicoding.async.active").tag("pool", "page").gauge().value());
+    }
+
+    /**
+     * 并发任务耗时记录到指标中，同名任务复用同一个 Timer
+     */
+    @Test
+    public void testBridgeMetrics() {
+        for (int i = 0; i < 3; i++) {
+            AsyncUtil.concurrentExecutor(AsyncPoolEnum.PAGE, "bridge")
+                    .runAsyncWithTimeRecord(() -> AsyncUtil.sleep(5), "a")
+                    .runAsyncWithTimeRecord(() -> AsyncUtil.sleep(5), "b")
+                    .allExecuted()
+                    .prettyPrint();
+        }
+        Assert.assertEquals(3, Metrics.globalRegistry.get("paicoding.async.bridge").tags("bridge", "bridge", "task", "a").timer().count());
+        Assert.assertEquals(3, Metrics.globalRegistry.get("paicoding.async.bridge").tags("bridge", "bridge", "task", "total").timer().count());
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.paicoding.forum.test.basic;
+
+import com.github.paicoding.forum.core.async.AsyncUtil;
+import com.github.paicoding.forum.core.cache.RedisClient;
+import com.github.paicoding.forum.service.statistics.service.help.ClusterOnlineCounter;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 集群在线人数统计，依赖本地 redis(localhost:6379)，未启动时跳过
+ *
+ * @author YiHui
+ * @date 2024/4/12
+ */
+public class ClusterOnlineCounterTest {
+    private static LettuceConnectionFactory factory;
+
+    @BeforeClass
+    public static void init() {
+        factory = new LettuceConnectionFactory("localhost", 6379);
+        factory.afterPropertiesSet();
+        try {
+            factory.getConnection().ping();
+        } catch (Exception e) {
+            factory.destroy();
+            Assume.assumeNoException("本地redis未启动", e);
+        }
+
+        StringRedisTemplate template = new StringRedisTemplate(factory);
+        template.afterPropertiesSet();
+        RedisClient.register(template);
+    }
+
+    @AfterClass
+    public static void close() {
+        RedisClient.del("online_device");
+        factory.destroy();
+    }
+
+    @Before
+    public void clear() {
+        RedisClient.del("online_device");
+    }
+
+    /**
+     * 两个节点各自上报，看到的是同一个在线人数
+     */
+    @Test
+    public void testCount() {
+        ClusterOnlineCounter node1 = newCounter(1800);
+        ClusterOnlineCounter node2 = newCounter(1800);
+
+        node1.visit("device-1");
+        node1.visit("device-2");
+        node2.visit("device-2");
+        node2.visit("device-3");
+        // 同一设备一分钟内的重复访问不再上报
+        node1.visit("device-1");
+        node1.flush();
+        node2.flush();
+
+        Assert.assertEquals(3, node1.count());
+        Assert.assertEquals(3, node2.count());
+    }
+
+    /**
+     * 过期的设备被清理
+     */
+    @Test
+    public void testExpire() {
+        ClusterOnlineCounter counter = newCounter(1800);
+        counter.visit("device-1");
+        counter.flush();
+        Assert.assertEquals(1, counter.count());
+
+        ClusterOnlineCounter expired = newCounter(0);
+        AsyncUtil.sleep(5);
+        expired.purge();
+        Assert.assertEquals(0, newCounter(1800).count());
+    }
+
+    private ClusterOnlineCounter newCounter(long window) {
+        ClusterOnlineCounter counter = new ClusterOnlineCounter();
+        ReflectionTestUtils.setField(counter, "windowSeconds", window);
+        ReflectionTestUtils.setField(counter, "maxDevices", 100);
+        return counter;
+    }
+}
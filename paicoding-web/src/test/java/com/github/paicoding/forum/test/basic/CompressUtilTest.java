@@ -0,0 +1,61 @@
+package com.github.paicoding.forum.test.basic;
+
+import com.github.paicoding.forum.core.util.CompressUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author YiHui
+ * @date 2024/4/11
+ */
+public class CompressUtilTest {
+    private static final char[] BINARY_ARRAY = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    /**
+     * 原来的实现，用于校验输出保持一致
+     */
+    private static String legacy(long num, int size) {
+        StringBuilder builder = new StringBuilder();
+        while (num > 0) {
+            builder.insert(0, BINARY_ARRAY[(int) (num % size)]);
+            num /= size;
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testCompatible() {
+        Random random = new Random(17);
+        long[] nums = new long[1000];
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = random.nextLong();
+        }
+        nums[0] = 0;
+        nums[1] = Long.MAX_VALUE;
+        nums[2] = 1;
+        nums[3] = 1735281032314327042L;
+
+        for (int size = 2; size <= 62; size++) {
+            String[] batch = CompressUtil.int2str(nums, size);
+            for (int i = 0; i < nums.length; i++) {
+                String expect = legacy(nums[i], size);
+                Assert.assertEquals(expect, CompressUtil.int2str(nums[i], size));
+                Assert.assertEquals(expect, batch[i]);
+                if (nums[i] >= 0) {
+                    Assert.assertEquals(nums[i], CompressUtil.str2int(expect, size));
+                }
+            }
+        }
+        System.out.println(CompressUtil.int2str(nums[3]));
+    }
+
+    @Test
+    public void testIllegal() {
+        Assert.assertEquals(0, CompressUtil.str2int(""));
+        Assert.assertThrows(IllegalArgumentException.class, () -> CompressUtil.str2int("ab-c"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> CompressUtil.str2int("12a", 10));
+        Assert.assertThrows(ArithmeticException.class, () -> CompressUtil.str2int("ZZZZZZZZZZZZ"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.paicoding.forum.test.basic;
+
+import com.github.paicoding.forum.core.util.CounterBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 计数写缓冲：并发累加与刷新不丢计数，写入失败时增量回填
+ *
+ * @author YiHui
+ * @date 2024/3/23
+ */
+public class CounterBufferTest {
+
+    @Test
+    public void testConcurrentFlush() throws Exception {
+        Map<String, Integer> saved = new HashMap<>();
+        AtomicBoolean fail = new AtomicBoolean();
+        CounterBuffer<String> buffer = new CounterBuffer<>("test.counter.buffer", 100, counts -> {
+            if (fail.getAndSet(!fail.get())) {
+                throw new IllegalStateException("db error");
+            }
+            counts.forEach((k, v) -> saved.merge(k, v, Integer::sum));
+        });
+
+        int threads = 4, loop = 10000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            pool.execute(() -> {
+                for (int j = 0; j < loop; j++) {
+                    buffer.incr("key-" + (j % 10));
+                    if (j % 1000 == 0) {
+                        buffer.flush();
+                    }
+                }
+                latch.countDown();
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        fail.set(false);
+        buffer.flush();
+        int total = saved.values().stream().mapToInt(Integer::intValue).sum();
+        System.out.println("saved: " + saved);
+        Assert.assertEquals(threads * loop, total);
+    }
+
+    @Test
+    public void testMaxPending() {
+        Map<String, Integer> saved = new HashMap<>();
+        CounterBuffer<String> buffer = new CounterBuffer<>("test.counter.buffer", 2, saved::putAll);
+        buffer.incr("a");
+        buffer.incr("b");
+        // 超出上限的新key被丢弃，已有的key继续累加
+        buffer.incr("c");
+        buffer.incr("a");
+        buffer.remove("b");
+        buffer.flush();
+        Assert.assertEquals(1, saved.size());
+        Assert.assertEquals(2, (int) saved.get("a"));
+    }
+}
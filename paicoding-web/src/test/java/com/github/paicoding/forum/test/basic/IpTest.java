@@ -7,6 +7,7 @@ import org.junit.Test;
 import java.net.SocketException;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Random;
 
 /**
  * @author YiHui
@@ -21,6 +22,26 @@ public class IpTest {
         System.out.println(IpUtil.getLocationByIp("121.40.134.96").toRegionStr());
     }
 
+    /**
+     * 内存模式下的首次加载耗时与查询吞吐
+     */
+    @Test
+    public void searchQps() {
+        long start = System.currentTimeMillis();
+        System.out.println(IpUtil.getLocationByIp("121.40.134.96").toRegionStr());
+        System.out.println("首次查询(含xdb加载)耗时: " + (System.currentTimeMillis() - start) + "ms");
+
+        Random random = new Random();
+        int total = 1_000_000;
+        start = System.currentTimeMillis();
+        for (int i = 0; i < total; i++) {
+            // 生成的ip大部分不会重复，测试的是xdb的实际查询性能
+            IpUtil.getLocationByIp(random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256));
+        }
+        long cost = System.currentTimeMillis() - start;
+        System.out.println("查询次数: " + total + ", 耗时: " + cost + "ms, qps: " + total * 1000L / Math.max(cost, 1));
+    }
+
     @Test
     public void snowFlake() {
         Calendar calendar = Calendar.getInstance();
@@ -0,0 +1,86 @@
+package com.github.paicoding.forum.test.basic;
+
+import com.github.paicoding.forum.core.async.AsyncUtil;
+import com.github.paicoding.forum.core.cache.NearCache;
+import com.github.paicoding.forum.core.cache.NearCacheProperties;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地缓存的失效广播，依赖本地 redis(localhost:6379)，未启动时跳过
+ *
+ * @author YiHui
+ * @date 2024/3/2
+ */
+public class NearCacheTest {
+    private static LettuceConnectionFactory factory;
+    private static StringRedisTemplate template;
+    private static RedisMessageListenerContainer container;
+
+    @BeforeClass
+    public static void init() {
+        factory = new LettuceConnectionFactory("localhost", 6379);
+        factory.afterPropertiesSet();
+        try {
+            factory.getConnection().ping();
+        } catch (Exception e) {
+            factory.destroy();
+            Assume.assumeNoException("本地redis未启动", e);
+        }
+
+        template = new StringRedisTemplate(factory);
+        template.afterPropertiesSet();
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @AfterClass
+    public static void close() throws Exception {
+        container.destroy();
+        factory.destroy();
+    }
+
+    /**
+     * 一次批量失效只广播一条消息，不走本地缓存的key不广播
+     */
+    @Test
+    public void testBatchInvalidate() {
+        NearCacheProperties properties = new NearCacheProperties();
+        properties.getTtl().put("article_info_", 60L);
+        NearCache node1 = new NearCache(properties, template);
+        NearCache node2 = new NearCache(properties, template);
+
+        AtomicInteger msgCnt = new AtomicInteger();
+        container.addMessageListener((message, pattern) -> {
+            msgCnt.incrementAndGet();
+            node2.onMessage(message, pattern);
+        }, new ChannelTopic(properties.getChannel()));
+        AsyncUtil.sleep(200);
+
+        AtomicInteger load = new AtomicInteger();
+        node2.get("article_info_1", "getStr", load::incrementAndGet);
+        node2.get("article_info_2", "getStr", load::incrementAndGet);
+        Assert.assertEquals(2, load.get());
+
+        node1.invalidate(Arrays.asList("article_info_1", "article_info_2", "article_statistic_1"));
+        node1.invalidate("article_statistic_2");
+        AsyncUtil.sleep(200);
+        Assert.assertEquals(1, msgCnt.get());
+
+        node2.get("article_info_1", "getStr", load::incrementAndGet);
+        node2.get("article_info_2", "getStr", load::incrementAndGet);
+        Assert.assertEquals(4, load.get());
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.paicoding.forum.test.basic;
+
+import com.github.paicoding.forum.api.model.vo.PageCursor;
+import com.github.paicoding.forum.api.model.vo.PageListVo;
+import com.github.paicoding.forum.api.model.vo.PageParam;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author YiHui
+ * @date 2024/4/7
+ */
+public class PageCursorTest {
+
+    @Test
+    public void testEncode() {
+        PageCursor cursor = PageCursor.of(1024L, 1L, 1712448000000L);
+        String token = cursor.encode();
+        System.out.println(token);
+        Assert.assertEquals(cursor, PageCursor.decode(token));
+
+        PageCursor idCursor = PageCursor.decode(PageCursor.of(99L).encode());
+        Assert.assertEquals(Long.valueOf(99L), idCursor.getId());
+        Assert.assertTrue(idCursor.getSorts().isEmpty());
+    }
+
+    @Test
+    public void testIllegal() {
+        Assert.assertNull(PageCursor.decode(null));
+        Assert.assertNull(PageCursor.decode(" "));
+        Assert.assertNull(PageCursor.decode("%%%"));
+        Assert.assertNull(PageCursor.decode("YWJj"));
+
+        // 非法游标退化为第一页
+        PageParam pageParam = PageParam.newCursorInstance("YWJj", 10L);
+        Assert.assertNull(pageParam.getCursor());
+        Assert.assertEquals(0, pageParam.getOffset());
+    }
+
+    @Test
+    public void testNextCursor() {
+        PageListVo<Long> vo = PageListVo.newVo(Arrays.asList(5L, 4L, 3L), 3, PageCursor::of);
+        Assert.assertEquals(PageCursor.of(3L).encode(), vo.getCursor());
+
+        // 最后一页不返回游标
+        vo = PageListVo.newVo(Arrays.asList(2L, 1L), 3, PageCursor::of);
+        Assert.assertNull(vo.getCursor());
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.paicoding.forum.test.basic;
+
+import com.github.paicoding.forum.core.senstive.SensitiveService;
+import com.github.paicoding.forum.core.senstive.ano.SensitiveField;
+import com.github.paicoding.forum.core.senstive.ibatis.SensitiveReadInterceptor;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+/**
+ * 查询结果的敏感词替换
+ *
+ * @author YiHui
+ * @date 2024/4/4
+ */
+public class SensitiveReadInterceptorTest {
+
+    /**
+     * 绑定其他字段时，未命中敏感词也需要写入标注的字段
+     */
+    @Test
+    public void testBindField() throws Throwable {
+        SensitiveService sensitiveService = Mockito.mock(SensitiveService.class);
+        Mockito.when(sensitiveService.replace(Mockito.anyString())).thenAnswer(invocation -> {
+            String txt = invocation.getArgument(0);
+            return txt.contains("敏感词") ? txt.replace("敏感词", "***") : txt;
+        });
+        SensitiveReadInterceptor interceptor = new SensitiveReadInterceptor();
+        ReflectionTestUtils.setField(interceptor, "sensitiveService", sensitiveService);
+
+        Comment normal = new Comment("正常的评论");
+        Comment sensitive = new Comment("包含敏感词的评论");
+        interceptor.replaceSensitiveResults(Arrays.asList(normal, sensitive));
+
+        Assert.assertEquals("正常的评论", normal.getContent());
+        Assert.assertEquals("正常的评论", normal.getShowContent());
+        Assert.assertEquals("包含***的评论", sensitive.getContent());
+        Assert.assertEquals("包含***的评论", sensitive.getShowContent());
+    }
+
+    @Data
+    public static class Comment {
+        @SensitiveField
+        private String content;
+
+        @SensitiveField(bind = "content")
+        private String showContent;
+
+        public Comment(String content) {
+            this.content = content;
+        }
+    }
+}
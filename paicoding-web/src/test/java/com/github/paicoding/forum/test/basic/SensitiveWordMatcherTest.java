@@ -0,0 +1,40 @@
+package com.github.paicoding.forum.test.basic;
+
+import com.github.houbb.sensitive.word.bs.SensitiveWordBs;
+import com.github.paicoding.forum.core.senstive.SensitiveWordMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * 敏感词匹配器，邮箱、网址的处理与 sensitive-word 的默认行为保持一致
+ *
+ * @author YiHui
+ * @date 2024/4/2
+ */
+public class SensitiveWordMatcherTest {
+
+    @Test
+    public void testEmailAndUrl() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.build(Collections.singletonList("敏感词"), Collections.emptyList());
+        SensitiveWordBs legacy = SensitiveWordBs.newInstance()
+                .wordDeny(() -> Collections.singletonList("敏感词"))
+                .wordAllow(Collections::emptyList)
+                .init();
+
+        for (String txt : Arrays.asList("联系我: hello_world@163.com 谢谢",
+                "官网 www.paicoding.com 欢迎访问",
+                "邮箱 a.b@qq.com, 网址 paicoding.com, 敏感词",
+                "没有邮箱和网址的内容.")) {
+            String ans = matcher.replace(txt);
+            System.out.println(txt + " -> " + ans);
+            Assert.assertEquals(legacy.replace(txt), ans);
+        }
+        Assert.assertEquals(Arrays.asList("hello@163.com", "paicoding.com"), matcher.findAll("hello@163.com 与 paicoding.com"));
+
+        SensitiveWordMatcher close = SensitiveWordMatcher.build(Collections.singletonList("敏感词"), Collections.emptyList(), false, false);
+        Assert.assertEquals("hello@163.com 与 paicoding.com", close.replace("hello@163.com 与 paicoding.com"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.paicoding.forum.test.basic;
+
+import com.github.paicoding.forum.core.util.id.snowflake.MillisSnowflakeIdGenerator;
+import com.github.paicoding.forum.core.util.id.snowflake.PaiSnowflakeIdGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author YiHui
+ * @date 2024/4/8
+ */
+public class SnowflakeTest {
+
+    /**
+     * 多线程并发生成，id不重复，且每个线程内单调递增
+     */
+    @Test
+    public void testMillisUnique() throws InterruptedException {
+        MillisSnowflakeIdGenerator generator = new MillisSnowflakeIdGenerator(3, 2);
+        int threads = 16, loop = 20000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger disorder = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threads);
+        ExecutorService es = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            boolean batch = (t & 1) == 0;
+            es.execute(() -> {
+                long last = 0;
+                for (int i = 0; i < loop; i++) {
+                    long[] cells = batch ? generator.nextIds(10) : new long[]{generator.nextId()};
+                    for (long id : cells) {
+                        if (id <= last) {
+                            disorder.incrementAndGet();
+                        }
+                        last = id;
+                        ids.add(id);
+                    }
+                }
+                latch.countDown();
+            });
+        }
+        latch.await(30, TimeUnit.SECONDS);
+        es.shutdown();
+        Assert.assertEquals(0, disorder.get());
+        Assert.assertEquals(threads / 2 * loop * 11, ids.size());
+        System.out.println("id: " + generator.nextId());
+    }
+
+    /**
+     * 批量生成的id连续递增
+     */
+    @Test
+    public void testMillisBatch() {
+        MillisSnowflakeIdGenerator generator = new MillisSnowflakeIdGenerator(1, 1);
+        long[] ids = generator.nextIds(4096);
+        for (int i = 1; i < ids.length; i++) {
+            Assert.assertTrue(ids[i] > ids[i - 1]);
+        }
+        Assert.assertTrue(generator.nextId() > ids[ids.length - 1]);
+    }
+
+    /**
+     * 日期前缀格式与原来的字符串拼接方式保持一致
+     */
+    @Test
+    public void testDayPrefix() {
+        Long id = new PaiSnowflakeIdGenerator(1, 1).nextId();
+        LocalDate now = LocalDate.now();
+        String prefix = String.format("%02d%03d", now.getYear() % 100, now.getDayOfYear());
+        System.out.println(id);
+        Assert.assertTrue(String.valueOf(id).startsWith(prefix));
+        Assert.assertEquals(prefix.length() + 11, String.valueOf(id).length());
+    }
+}
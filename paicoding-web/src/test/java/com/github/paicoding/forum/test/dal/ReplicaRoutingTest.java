@@ -0,0 +1,251 @@
+package com.github.paicoding.forum.test.dal;
+
+import com.github.paicoding.forum.api.model.context.ReqInfoContext;
+import com.github.paicoding.forum.core.dal.DsAno;
+import com.github.paicoding.forum.core.dal.DsAspect;
+import com.github.paicoding.forum.core.dal.DsPoolMetrics;
+import com.github.paicoding.forum.core.dal.DsProperties;
+import com.github.paicoding.forum.core.dal.DsSelectExecutor;
+import com.github.paicoding.forum.core.dal.MasterSlaveDsEnum;
+import com.github.paicoding.forum.core.dal.MyRoutingDataSource;
+import com.github.paicoding.forum.core.dal.ReadOnlyRoutingAspect;
+import com.github.paicoding.forum.core.dal.ReplicaRouter;
+import com.github.paicoding.forum.core.dal.WriteStickyInterceptor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * 读写分离路由：两个 h2 内存库分别模拟主库与从库，通过查询结果判断路由到了哪个库
+ *
+ * @author YiHui
+ * @date 2024/4/6
+ */
+public class ReplicaRoutingTest {
+    private MyRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void init() {
+        DataSource master = h2("master");
+        DataSource slave = h2("slave");
+        // 库不存在时 IFEXISTS 会导致获取连接失败，用来模拟故障的从库
+        DataSource brokenSlave = new DriverManagerDataSource("jdbc:h2:mem:not_exists;IFEXISTS=TRUE", "sa", "");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put("MASTER", master);
+        targets.put("SLAVE", slave);
+        targets.put("SLAVE_BROKEN", brokenSlave);
+
+        DsProperties.Routing routing = new DsProperties.Routing();
+        routing.getWeights().put("SLAVE", 100);
+        Map<String, DsPoolMetrics> replicas = new HashMap<>();
+        replicas.put("SLAVE", DsPoolMetrics.monitor("SLAVE", slave));
+        replicas.put("SLAVE_BROKEN", DsPoolMetrics.monitor("SLAVE_BROKEN", brokenSlave));
+
+        routingDataSource = new MyRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(master);
+        routingDataSource.setReplicaRouter(new ReplicaRouter(routing, "MASTER", replicas));
+        routingDataSource.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+    }
+
+    @After
+    public void clear() {
+        ReqInfoContext.clear();
+    }
+
+    private DataSource h2(String name) {
+        DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(ds);
+        template.execute("create table if not exists ds_name (name varchar(32))");
+        template.execute("delete from ds_name");
+        template.update("insert into ds_name values (?)", name);
+        return ds;
+    }
+
+    private String query() {
+        return jdbcTemplate.queryForObject("select name from ds_name", String.class);
+    }
+
+    private String queryOnSlave() {
+        return DsSelectExecutor.submit(MasterSlaveDsEnum.SLAVE, this::query);
+    }
+
+    @Test
+    public void testRoute() {
+        // 默认走主库，指定 SLAVE 时按权重选择从库
+        assertEquals("master", query());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("slave", queryOnSlave());
+        }
+    }
+
+    @Test
+    public void testNoSlave() {
+        // 未开启路由、也没有配置从库时，@DsAno(SLAVE) 的查询走默认数据源
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put("MASTER", h2("master"));
+        MyRoutingDataSource ds = new MyRoutingDataSource();
+        ds.setTargetDataSources(targets);
+        ds.setDefaultTargetDataSource(targets.get("MASTER"));
+        ds.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(ds);
+        assertEquals("master", queryOnSlave());
+    }
+
+    @Test
+    public void testFailback() {
+        DsProperties.Routing routing = new DsProperties.Routing();
+        Map<String, DsPoolMetrics> replicas = new HashMap<>();
+        replicas.put("SLAVE_BROKEN", DsPoolMetrics.monitor("SLAVE_BROKEN", new DriverManagerDataSource("jdbc:h2:mem:not_exists;IFEXISTS=TRUE", "sa", "")));
+        routingDataSource.setReplicaRouter(new ReplicaRouter(routing, "MASTER", replicas));
+
+        // 唯一的从库获取连接失败，回退到主库；冷却期内不再尝试该从库
+        assertEquals("master", queryOnSlave());
+        assertEquals("master", queryOnSlave());
+    }
+
+    @Test
+    public void testReadYourWrites() {
+        ReqInfoContext.ReqInfo reqInfo = new ReqInfoContext.ReqInfo();
+        reqInfo.setUserId(1L);
+        ReqInfoContext.addReqInfo(reqInfo);
+        assertEquals("slave", queryOnSlave());
+
+        // 用户写操作之后，短时间内的查询走主库
+        routingDataSource.getReplicaRouter().markWrite();
+        assertEquals("master", queryOnSlave());
+
+        // 其他用户不受影响
+        ReqInfoContext.ReqInfo other = new ReqInfoContext.ReqInfo();
+        other.setUserId(2L);
+        ReqInfoContext.addReqInfo(other);
+        assertEquals("slave", queryOnSlave());
+    }
+
+    @Test
+    public void testAspect() {
+        QueryService service = proxy(new QueryService());
+        assertEquals("slave", service.dsAnoQuery());
+        assertEquals("slave", service.readOnlyQuery());
+        assertEquals("master", service.writeTxQuery());
+
+        // 事务中的只读查询沿用事务的主库连接
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(routingDataSource));
+        assertEquals("master", tx.execute(status -> service.readOnlyQuery()));
+        assertEquals("master", tx.execute(status -> service.dsAnoQuery()));
+    }
+
+    @Test
+    public void testRetryOnMaster() {
+        QueryService target = new QueryService();
+        QueryService service = proxy(target);
+
+        // 从库执行查询时出现连接类异常，标记该从库故障，并在主库上重试
+        target.failOnSlave = true;
+        assertEquals("master", service.dsAnoQuery());
+        assertEquals(2, target.calls.get());
+
+        // 冷却期内直接走主库
+        target.calls.set(0);
+        assertEquals("master", service.readOnlyQuery());
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    public void testNoRetryOnBizError() {
+        QueryService target = new QueryService();
+        QueryService service = proxy(target);
+        target.bizError = true;
+        try {
+            service.dsAnoQuery();
+            fail();
+        } catch (IllegalStateException e) {
+            // 非连接类异常直接抛出，不重试
+            assertEquals(1, target.calls.get());
+        }
+        // 从库没有被标记故障
+        target.bizError = false;
+        assertEquals("slave", service.dsAnoQuery());
+    }
+
+    @Test
+    public void testWriteSticky() throws Exception {
+        ReqInfoContext.ReqInfo reqInfo = new ReqInfoContext.ReqInfo();
+        reqInfo.setUserId(3L);
+        ReqInfoContext.addReqInfo(reqInfo);
+        QueryService service = proxy(new QueryService());
+        assertEquals("slave", service.dsAnoQuery());
+
+        // 经过 mybatis 的 update 之后，该用户的查询走主库
+        Executor executor = (Executor) new WriteStickyInterceptor(routingDataSource.getReplicaRouter()).plugin(Mockito.mock(Executor.class));
+        executor.update((MappedStatement) null, null);
+        assertEquals("master", service.dsAnoQuery());
+        assertEquals("master", service.readOnlyQuery());
+    }
+
+    private QueryService proxy(QueryService target) {
+        target.jdbcTemplate = jdbcTemplate;
+        DsAspect dsAspect = new DsAspect();
+        dsAspect.setReplicaRouter(routingDataSource.getReplicaRouter());
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ReadOnlyRoutingAspect(routingDataSource.getReplicaRouter()));
+        factory.addAspect(dsAspect);
+        return factory.getProxy();
+    }
+
+    public static class QueryService {
+        private JdbcTemplate jdbcTemplate;
+        private boolean failOnSlave;
+        private boolean bizError;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @DsAno(MasterSlaveDsEnum.SLAVE)
+        public String dsAnoQuery() {
+            return query();
+        }
+
+        @Transactional(readOnly = true)
+        public String readOnlyQuery() {
+            return query();
+        }
+
+        @Transactional(rollbackFor = Exception.class)
+        public String writeTxQuery() {
+            return query();
+        }
+
+        private String query() {
+            calls.incrementAndGet();
+            if (bizError) {
+                throw new IllegalStateException("biz error");
+            }
+            String ans = jdbcTemplate.queryForObject("select name from ds_name", String.class);
+            if (failOnSlave && "slave".equals(ans)) {
+                throw new DataAccessResourceFailureException("replica connection reset");
+            }
+            return ans;
+        }
+    }
+}